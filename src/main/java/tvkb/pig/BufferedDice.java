@@ -0,0 +1,110 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dice serving rolls from a buffer of outcomes that is refilled in bulk from other dice.
+ */
+public class BufferedDice implements Dice
+{
+
+	/**
+	 * The dice filling the buffer.
+	 */
+	@NotNull private Dice source;
+
+	/**
+	 * The buffered outcomes.
+	 */
+	@NotNull private int[] buffer;
+
+	/**
+	 * The position of the last roll in the buffer.
+	 */
+	private int position;
+
+	/**
+	 * The packed outcome of the last roll.
+	 */
+	private int outcome;
+
+	/**
+	 * Creates new buffered dice.
+	 *
+	 * @param source   The dice filling the buffer.
+	 * @param capacity The number of outcomes to buffer.
+	 */
+	public BufferedDice(@NotNull Dice source, int capacity)
+	{
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive.");
+
+		this.source = source;
+		this.buffer = new int[capacity];
+		this.position = capacity;
+		this.outcome = source.outcome();
+	}
+
+	/**
+	 * Rolls the dice, taking the next outcome from the buffer.
+	 */
+	@Override public void roll()
+	{
+		if (++position >= buffer.length) {
+			source.rollBatch(buffer, buffer.length);
+			position = 0;
+		}
+
+		outcome = buffer[position];
+	}
+
+	/**
+	 * Returns the outcome of the last roll packed by DiceOutcome.
+	 *
+	 * @return The packed outcome of the last roll.
+	 */
+	@Override public int outcome()
+	{
+		return outcome;
+	}
+
+	/**
+	 * Returns the sum of the dice.
+	 *
+	 * @return The sum of the dice.
+	 */
+	@Override public int sum()
+	{
+		return DiceOutcome.sum(outcome);
+	}
+
+	/**
+	 * Returns true if the player must now skip their turn and lose their turn points.
+	 *
+	 * @return True if the player must now skip their turn and lose their turn points.
+	 */
+	@Override public boolean forcesSoftReset()
+	{
+		return DiceOutcome.forcesSoftReset(outcome);
+	}
+
+	/**
+	 * Returns true if the player must now reset their bank and turn points.
+	 *
+	 * @return True if the player must now reset their bank and turn points.
+	 */
+	@Override public boolean forcesHardReset()
+	{
+		return DiceOutcome.forcesHardReset(outcome);
+	}
+
+	/**
+	 * Returns true if the player wins their bet based on the dice.
+	 *
+	 * @return True if the player wins their bet based on the dice.
+	 */
+	@Override public boolean winsBet()
+	{
+		return DiceOutcome.winsBet(outcome);
+	}
+}
@@ -35,4 +35,74 @@ public interface Dice
 	 * @return True if the player wins their bet based on the dice.
 	 */
 	boolean winsBet();
+
+	/**
+	 * Returns the outcome of the last roll packed by DiceOutcome. Lets the game read the whole roll with a single call.
+	 *
+	 * @return The packed outcome of the last roll.
+	 */
+	default int outcome()
+	{
+		return DiceOutcome.pack(sum(), forcesSoftReset(), forcesHardReset(), winsBet());
+	}
+
+	/**
+	 * Returns true if the state of the dice can be read and restored.
+	 *
+	 * @return True if the state of the dice can be read and restored.
+	 */
+	default boolean isRestorable()
+	{
+		return false;
+	}
+
+	/**
+	 * Returns the state of the dice, from which the same rolls can be replayed with setState().
+	 *
+	 * @return The state of the dice.
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	default long getState()
+	{
+		throw new UnsupportedOperationException("The state of the dice cannot be read.");
+	}
+
+	/**
+	 * Restores the state of the dice.
+	 *
+	 * @param state The state to restore, as returned by getState().
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	default void setState(long state)
+	{
+		throw new UnsupportedOperationException("The state of the dice cannot be restored.");
+	}
+
+	/**
+	 * Restores the state of the dice along with the outcome of their last roll, so outcome() reports the same roll as
+	 * when the state was read. Dice only restoring their state through setState(long) report an undefined outcome until
+	 * they roll again.
+	 *
+	 * @param state   The state to restore, as returned by getState().
+	 * @param outcome The packed outcome of the last roll, as returned by outcome().
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	default void setState(long state, int outcome)
+	{
+		setState(state);
+	}
+
+	/**
+	 * Rolls the dice the provided number of times, writing the packed outcomes to the provided array.
+	 *
+	 * @param outcomes The array to write the outcomes to, from index zero.
+	 * @param count    The number of times to roll.
+	 */
+	default void rollBatch(int[] outcomes, int count)
+	{
+		for (int i = 0; i < count; i++) {
+			roll();
+			outcomes[i] = outcome();
+		}
+	}
 }
@@ -0,0 +1,217 @@
+package tvkb.pig;
+
+/**
+ * Packs the outcome of a roll of two dice into a single int. The lowest four bits hold the sum of the dice, followed
+ * by flags for soft resets, hard resets and won bets. The faces of the dice are stored above the flags, and are zero
+ * when the outcome was not created from two faces.
+ */
+public final class DiceOutcome
+{
+
+	/**
+	 * Mask of the bits holding the sum of the dice.
+	 */
+	public static final int SUM_MASK = 0xF;
+
+	/**
+	 * Flag set when the roll forces a soft reset.
+	 */
+	public static final int SOFT_RESET = 1 << 4;
+
+	/**
+	 * Flag set when the roll forces a hard reset.
+	 */
+	public static final int HARD_RESET = 1 << 5;
+
+	/**
+	 * Flag set when the roll wins a bet.
+	 */
+	public static final int WINS_BET = 1 << 6;
+
+	/**
+	 * Offset of the bits holding the face of the first die.
+	 */
+	private static final int FIRST_FACE_SHIFT = 8;
+
+	/**
+	 * Offset of the bits holding the face of the second die.
+	 */
+	private static final int SECOND_FACE_SHIFT = 11;
+
+	/**
+	 * Mask of the bits holding a single face, after shifting.
+	 */
+	private static final int FACE_MASK = 0x7;
+
+	/**
+	 * The outcomes of the 36 possible rolls, indexed by (first - 1) * 6 + (second - 1).
+	 */
+	private static final int[] TABLE = new int[36];
+
+	static {
+		for (int first = 1; first <= 6; first++)
+			for (int second = 1; second <= 6; second++)
+				TABLE[index(first, second)] = compute(first, second);
+	}
+
+	/**
+	 * Outcomes are plain ints, the class only holds static helpers.
+	 */
+	private DiceOutcome()
+	{
+	}
+
+	/**
+	 * Returns the outcome of rolling the provided faces.
+	 *
+	 * @param first  The face of the first die, between 1 and 6 inclusive.
+	 * @param second The face of the second die, between 1 and 6 inclusive.
+	 * @return The outcome of rolling the provided faces.
+	 */
+	public static int of(int first, int second)
+	{
+		return TABLE[index(first, second)];
+	}
+
+	/**
+	 * Returns the outcome at the provided index of the table of all 36 possible rolls. Picking a uniformly random index
+	 * is the same as rolling two dice.
+	 *
+	 * @param index The index, between 0 and 35 inclusive.
+	 * @return The outcome at the provided index.
+	 */
+	public static int ofIndex(int index)
+	{
+		return TABLE[index];
+	}
+
+	/**
+	 * Packs an outcome without faces.
+	 *
+	 * @param sum       The sum of the dice.
+	 * @param softReset Whether the roll forces a soft reset.
+	 * @param hardReset Whether the roll forces a hard reset.
+	 * @param winsBet   Whether the roll wins a bet.
+	 * @return The packed outcome.
+	 */
+	public static int pack(int sum, boolean softReset, boolean hardReset, boolean winsBet)
+	{
+		return (sum & SUM_MASK)
+				| (softReset ? SOFT_RESET : 0)
+				| (hardReset ? HARD_RESET : 0)
+				| (winsBet ? WINS_BET : 0);
+	}
+
+	/**
+	 * Returns true if the provided int is an outcome created by of() or pack().
+	 *
+	 * @param outcome The int to check.
+	 * @return True if the provided int is an outcome created by of() or pack().
+	 */
+	public static boolean isValid(int outcome)
+	{
+		int first  = getFirstFace(outcome);
+		int second = getSecondFace(outcome);
+		if (first == 0 && second == 0)
+			return (outcome & ~(SUM_MASK | SOFT_RESET | HARD_RESET | WINS_BET)) == 0;
+
+		return first >= 1 && first <= 6 && second >= 1 && second <= 6 && of(first, second) == outcome;
+	}
+
+	/**
+	 * Returns the sum of the dice.
+	 *
+	 * @param outcome The outcome.
+	 * @return The sum of the dice.
+	 */
+	public static int sum(int outcome)
+	{
+		return outcome & SUM_MASK;
+	}
+
+	/**
+	 * Returns true if the outcome forces a soft reset.
+	 *
+	 * @param outcome The outcome.
+	 * @return True if the outcome forces a soft reset.
+	 */
+	public static boolean forcesSoftReset(int outcome)
+	{
+		return (outcome & SOFT_RESET) != 0;
+	}
+
+	/**
+	 * Returns true if the outcome forces a hard reset.
+	 *
+	 * @param outcome The outcome.
+	 * @return True if the outcome forces a hard reset.
+	 */
+	public static boolean forcesHardReset(int outcome)
+	{
+		return (outcome & HARD_RESET) != 0;
+	}
+
+	/**
+	 * Returns true if the outcome wins a bet.
+	 *
+	 * @param outcome The outcome.
+	 * @return True if the outcome wins a bet.
+	 */
+	public static boolean winsBet(int outcome)
+	{
+		return (outcome & WINS_BET) != 0;
+	}
+
+	/**
+	 * Returns the face of the first die, or zero when the outcome has no faces.
+	 *
+	 * @param outcome The outcome.
+	 * @return The face of the first die.
+	 */
+	public static int getFirstFace(int outcome)
+	{
+		return (outcome >>> FIRST_FACE_SHIFT) & FACE_MASK;
+	}
+
+	/**
+	 * Returns the face of the second die, or zero when the outcome has no faces.
+	 *
+	 * @param outcome The outcome.
+	 * @return The face of the second die.
+	 */
+	public static int getSecondFace(int outcome)
+	{
+		return (outcome >>> SECOND_FACE_SHIFT) & FACE_MASK;
+	}
+
+	/**
+	 * Returns the index of the provided faces in the table.
+	 *
+	 * @param first  The face of the first die.
+	 * @param second The face of the second die.
+	 * @return The index of the provided faces in the table.
+	 */
+	private static int index(int first, int second)
+	{
+		return (first - 1) * 6 + (second - 1);
+	}
+
+	/**
+	 * Computes the outcome of the provided faces using the rules of the DicePair.
+	 *
+	 * @param first  The face of the first die.
+	 * @param second The face of the second die.
+	 * @return The outcome of the provided faces.
+	 */
+	private static int compute(int first, int second)
+	{
+		int     sum       = first + second;
+		boolean softReset = first == 1 ^ second == 1;
+		boolean hardReset = first == 1 && second == 1;
+		boolean winsBet   = !softReset && !hardReset && sum >= 10;
+
+		return pack(sum, softReset, hardReset, winsBet)
+				| first << FIRST_FACE_SHIFT
+				| second << SECOND_FACE_SHIFT;
+	}
+}
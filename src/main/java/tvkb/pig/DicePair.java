@@ -1,25 +1,142 @@
 package tvkb.pig;
 
+import org.jetbrains.annotations.NotNull;
+
 public class DicePair implements Dice
 {
 
 	/**
 	 * The first die of the pair.
 	 */
-	private Die a = new Die();
+	@NotNull private Die a;
 
 	/**
 	 * The second die of the pair.
 	 */
-	private Die b = new Die();
+	@NotNull private Die b;
+
+	/**
+	 * The source of randomness shared by the two dice.
+	 */
+	@NotNull private RandomSource random;
+
+	/**
+	 * The packed outcome of the last roll, looked up once per roll.
+	 */
+	private int outcome;
+
+	/**
+	 * Creates a new pair of dice with a uniquely seeded source of randomness.
+	 */
+	public DicePair()
+	{
+		this(new SplitMixRandom());
+	}
+
+	/**
+	 * Creates a new pair of dice with a seeded source of randomness. Pairs created with the same seed roll the same.
+	 *
+	 * @param seed The seed of the source of randomness.
+	 */
+	public DicePair(long seed)
+	{
+		this(new SplitMixRandom(seed));
+	}
+
+	/**
+	 * Creates a new pair of dice.
+	 *
+	 * @param random The source of randomness shared by the two dice.
+	 */
+	public DicePair(@NotNull RandomSource random)
+	{
+		this.random = random;
+		this.a = new Die(random);
+		this.b = new Die(random);
+		this.outcome = DiceOutcome.of(a.getFaceValue(), b.getFaceValue());
+	}
 
 	/**
 	 * Rolls the dice.
 	 */
 	@Override public void roll()
 	{
-		a.roll();
-		b.roll();
+		outcome = DiceOutcome.of(a.roll(), b.roll());
+	}
+
+	/**
+	 * Returns the outcome of the last roll packed by DiceOutcome.
+	 *
+	 * @return The packed outcome of the last roll.
+	 */
+	@Override public int outcome()
+	{
+		return outcome;
+	}
+
+	/**
+	 * Rolls the dice the provided number of times, writing the packed outcomes to the provided array. Each roll draws a
+	 * single random number picking one of the 36 possible outcomes, instead of rolling the two dice. The batch does not
+	 * change the last roll of the pair.
+	 *
+	 * @param outcomes The array to write the outcomes to, from index zero.
+	 * @param count    The number of times to roll.
+	 */
+	@Override public void rollBatch(int[] outcomes, int count)
+	{
+		for (int i = 0; i < count; i++)
+			outcomes[i] = DiceOutcome.ofIndex(random.nextInt(36));
+	}
+
+	/**
+	 * Returns true if the source of randomness of the pair is a SplitMixRandom, whose state can be restored.
+	 *
+	 * @return True if the state of the dice can be read and restored.
+	 */
+	@Override public boolean isRestorable()
+	{
+		return random instanceof SplitMixRandom;
+	}
+
+	/**
+	 * Returns the state of the source of randomness.
+	 *
+	 * @return The state of the source of randomness.
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	@Override public long getState()
+	{
+		if (!isRestorable())
+			throw new UnsupportedOperationException("The state of the dice cannot be read.");
+
+		return ((SplitMixRandom) random).getState();
+	}
+
+	/**
+	 * Restores the state of the source of randomness.
+	 *
+	 * @param state The state to restore, as returned by getState().
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	@Override public void setState(long state)
+	{
+		if (!isRestorable())
+			throw new UnsupportedOperationException("The state of the dice cannot be restored.");
+
+		((SplitMixRandom) random).setState(state);
+	}
+
+	/**
+	 * Restores the state of the source of randomness and the outcome of the last roll.
+	 *
+	 * @param state   The state to restore, as returned by getState().
+	 * @param outcome The packed outcome of the last roll, as returned by outcome().
+	 * @throws UnsupportedOperationException If the dice are not restorable.
+	 */
+	@Override public void setState(long state, int outcome)
+	{
+		setState(state);
+		this.outcome = outcome;
 	}
 
 	/**
@@ -29,7 +146,7 @@ public class DicePair implements Dice
 	 */
 	@Override public int sum()
 	{
-		return a.getFaceValue() + b.getFaceValue();
+		return DiceOutcome.sum(outcome);
 	}
 
 	/**
@@ -39,7 +156,7 @@ public class DicePair implements Dice
 	 */
 	@Override public boolean forcesSoftReset()
 	{
-		return a.getFaceValue() == 1 ^ b.getFaceValue() == 1;
+		return DiceOutcome.forcesSoftReset(outcome);
 	}
 
 	/**
@@ -49,7 +166,7 @@ public class DicePair implements Dice
 	 */
 	@Override public boolean forcesHardReset()
 	{
-		return a.getFaceValue() == 1 && b.getFaceValue() == 1;
+		return DiceOutcome.forcesHardReset(outcome);
 	}
 
 	/**
@@ -59,9 +176,6 @@ public class DicePair implements Dice
 	 */
 	@Override public boolean winsBet()
 	{
-		if (forcesSoftReset() || forcesHardReset())
-			return false;
-
-		return sum() >= 10;
+		return DiceOutcome.winsBet(outcome);
 	}
 }
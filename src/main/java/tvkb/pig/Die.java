@@ -1,5 +1,7 @@
 package tvkb.pig;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.util.Random;
 
 public class Die
@@ -8,7 +10,7 @@ public class Die
 	/**
 	 * The source of randomness in the die.
 	 */
-	private Random random = new Random();
+	@NotNull private RandomSource random;
 
 	/**
 	 * The face value of the die.
@@ -16,11 +18,22 @@ public class Die
 	private int face;
 
 	/**
-	 * Creates a new die.
+	 * Creates a new die using its own java.util.Random.
 	 */
 	public Die()
 	{
-		face = getRandom();
+		this(new Random()::nextInt);
+	}
+
+	/**
+	 * Creates a new die.
+	 *
+	 * @param random The source of randomness in the die.
+	 */
+	public Die(@NotNull RandomSource random)
+	{
+		this.random = random;
+		this.face = getRandom();
 	}
 
 	/**
@@ -4,12 +4,24 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+/**
+ * A game of pig. The game is a single-writer actor: commands made from threads other than the one currently playing the
+ * game are queued in a lock-free mailbox and run by the thread playing the game, or by the calling thread when the game
+ * is idle. Players deciding synchronously from within the game skip the mailbox.
+ */
 public final class Game
 {
 
+	/**
+	 * The number of points a player must reach for the game to end.
+	 */
+	public static final int WINNING_POINTS = 100;
+
 	/**
 	 * The dice to play the game with.
 	 */
@@ -20,6 +32,11 @@ public final class Game
 	 */
 	@NotNull private List<GameEventHandler> eventHandlers = new ArrayList<>();
 
+	/**
+	 * The handlers subscribed to each type of event, indexed by the ordinal of the GameEvent.
+	 */
+	@NotNull private GameEventHandler[][] subscribers;
+
 	/**
 	 * The players in the game.
 	 */
@@ -31,7 +48,52 @@ public final class Game
 	@Nullable private Player currentRespondent;
 
 	/**
-	 * Creates a new game.
+	 * The seat of the current respondent, -1 before the game started.
+	 */
+	private int currentSeat = -1;
+
+	/**
+	 * Seats the players and looks them up by name or instance.
+	 */
+	@NotNull private PlayerRegistry registry;
+
+	/**
+	 * Tracks the players with the most points.
+	 */
+	@NotNull private Leaderboard leaderboard;
+
+	/**
+	 * The state of the turn loop.
+	 */
+	@NotNull private GameState state = GameState.CREATED;
+
+	/**
+	 * Whether or not the turn loop is currently running. Used to turn nested decision responses into loop iterations.
+	 */
+	private boolean running = false;
+
+	/**
+	 * The commands made by threads other than the one playing the game.
+	 */
+	@NotNull private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The number of queued commands not run yet. The thread raising the number from zero runs the mailbox.
+	 */
+	@NotNull private final AtomicInteger pending = new AtomicInteger();
+
+	/**
+	 * The thread currently running commands against the game, null when the game is idle.
+	 */
+	@Nullable private volatile Thread owner;
+
+	/**
+	 * The number of the current decision request. Decisions made for another request are dropped.
+	 */
+	private volatile long decisionRequest = 0;
+
+	/**
+	 * Creates a new game. The subscriptions of the event handlers are read once, here.
 	 *
 	 * @param dice The dice to play the game with.
 	 */
@@ -40,12 +102,37 @@ public final class Game
 		this.dice = dice;
 		this.eventHandlers = eventHandlers;
 		this.players = players;
+		this.subscribers = subscribe(eventHandlers);
+		this.registry = new PlayerRegistry(players);
+		this.leaderboard = new Leaderboard(players);
 	}
 
 	public Game(@NotNull Dice dice, @NotNull GameEventHandler eventHandler, @NotNull List<Player> players)
 	{
-		this(dice, new ArrayList<>(), players);
-		eventHandlers.add(eventHandler);
+		this(dice, new ArrayList<>(Collections.singletonList(eventHandler)), players);
+	}
+
+	/**
+	 * Groups the provided event handlers by the types of events they subscribe to.
+	 *
+	 * @param eventHandlers The event handlers.
+	 * @return The handlers subscribed to each type of event, indexed by the ordinal of the GameEvent.
+	 */
+	private static GameEventHandler[][] subscribe(List<GameEventHandler> eventHandlers)
+	{
+		GameEvent[]          events      = GameEvent.values();
+		GameEventHandler[][] subscribers = new GameEventHandler[events.length][];
+
+		for (GameEvent event : events) {
+			List<GameEventHandler> subscribed = new ArrayList<>();
+			for (GameEventHandler handler : eventHandlers)
+				if (handler.getSubscriptions().contains(event))
+					subscribed.add(handler);
+
+			subscribers[event.ordinal()] = subscribed.toArray(new GameEventHandler[0]);
+		}
+
+		return subscribers;
 	}
 
 	/**
@@ -57,8 +144,219 @@ public final class Game
 	{
 		ensureEnoughPlayers();
 		ensureNoNameCollisions();
-		sendEvent(handler -> handler.onGameStart(this));
-		handleTurn(players.get(0));
+		execute(() -> {
+			sendGameStart();
+			this.leaderboard.reset();
+			setRespondent(0);
+			this.state = GameState.ROLLING;
+			loop();
+		});
+	}
+
+	/**
+	 * Runs the provided command against the game. The command is run right away when the calling thread is playing the
+	 * game already. Otherwise it is queued, and the calling thread runs the mailbox when no other thread does.
+	 *
+	 * @param command The command to run.
+	 */
+	private void execute(Runnable command)
+	{
+		Thread current = Thread.currentThread();
+		if (owner == current) {
+			command.run();
+			return;
+		}
+
+		mailbox.add(command);
+		if (pending.getAndIncrement() == 0)
+			drain(current);
+	}
+
+	/**
+	 * Runs the queued commands until none are pending. Must only be called by the thread that raised the number of
+	 * pending commands from zero, or that lowered it to a number other than zero.
+	 *
+	 * @param current The calling thread.
+	 */
+	private void drain(Thread current)
+	{
+		RuntimeException failure = null;
+		do {
+			// The owner is cleared before the count is lowered, so it never overwrites the owner of the next thread.
+			owner = current;
+			try {
+				mailbox.poll().run();
+			} catch (RuntimeException e) {
+				if (failure == null)
+					failure = e;
+			} finally {
+				owner = null;
+			}
+		} while (pending.decrementAndGet() != 0);
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Makes the calling thread the thread playing the game, when the game is idle. Must be followed by release().
+	 *
+	 * @param current The calling thread.
+	 * @return True if the game was idle, false if another thread is playing the game.
+	 */
+	private boolean acquire(Thread current)
+	{
+		if (!pending.compareAndSet(0, 1))
+			return false;
+
+		owner = current;
+		return true;
+	}
+
+	/**
+	 * Stops the calling thread from playing the game, after running the commands queued in the meantime.
+	 *
+	 * @param current The calling thread.
+	 */
+	private void release(Thread current)
+	{
+		owner = null;
+		if (pending.decrementAndGet() != 0)
+			drain(current);
+	}
+
+	/**
+	 * Returns true if the calling thread is currently playing the game.
+	 *
+	 * @return True if the calling thread is currently playing the game.
+	 */
+	private boolean isOwner()
+	{
+		return owner == Thread.currentThread();
+	}
+
+	/**
+	 * Performs a single step of the turn loop. A step is either a roll by the current respondent or the hand-over to
+	 * the next player. Decisions made synchronously during the step do not continue the loop, the next step does. Must
+	 * be called by the thread playing the game, or while the game is idle. Commands queued by other threads during the
+	 * step are run afterwards.
+	 *
+	 * @return True if a step was performed, false if the game has ended or is waiting for a decision.
+	 * @throws IllegalStateException When another thread is playing the game.
+	 */
+	public boolean step()
+	{
+		Thread current = Thread.currentThread();
+		if (owner == current)
+			return advanceOnce();
+
+		if (!acquire(current))
+			throw new IllegalStateException("Cannot step the game, it is being played by another thread.");
+
+		try {
+			return advanceOnce();
+		} finally {
+			release(current);
+		}
+	}
+
+	/**
+	 * Performs a single step of the turn loop on the thread playing the game, while marking the loop as running. This
+	 * way decisions applied during the step only update the state, instead of playing on through loop().
+	 *
+	 * @return True if a step was performed, false if the game has ended or is waiting for a decision.
+	 */
+	private boolean advanceOnce()
+	{
+		boolean nested = running;
+		running = true;
+		try {
+			return advance();
+		} finally {
+			running = nested;
+		}
+	}
+
+	/**
+	 * Performs a single step of the turn loop on the thread playing the game.
+	 *
+	 * @return True if a step was performed, false if the game has ended or is waiting for a decision.
+	 */
+	private boolean advance()
+	{
+		switch (state) {
+			case ROLLING:
+				handleTurn(currentRespondent);
+				return true;
+			case PASSING:
+				playNext();
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Steps the game until it either ends or waits for a player decision that is not made right away. The loop is run
+	 * through the mailbox, so it is queued when another thread is playing the game.
+	 */
+	public void runToCompletion()
+	{
+		execute(this::loop);
+	}
+
+	/**
+	 * Steps the game on the thread playing the game until it either ends or waits for a decision. Calls made while the
+	 * loop is already running return immediately, the running loop picks up the new state instead. This keeps the stack
+	 * depth constant no matter how many turns are played.
+	 */
+	private void loop()
+	{
+		if (running)
+			return;
+
+		running = true;
+		try {
+			while (advance()) ;
+		} finally {
+			running = false;
+		}
+	}
+
+	/**
+	 * Resumes a restored game. A game restored while waiting for a decision requests the decision again, under a new
+	 * decision request, any other game continues the turn loop.
+	 */
+	public void resume()
+	{
+		execute(() -> {
+			if (state == GameState.AWAITING_DECISION && currentRespondent != null) {
+				this.decisionRequest = decisionRequest + 1;
+				currentRespondent.requestDecision(this);
+				return;
+			}
+
+			loop();
+		});
+	}
+
+	/**
+	 * Resets the game and its players to the state before the game started, so the same instances can be started
+	 * again. The dice keep rolling from their current state. The reset is run through the mailbox, so it is queued when
+	 * another thread is playing the game.
+	 */
+	public void reset()
+	{
+		execute(() -> {
+			for (Player player : players)
+				player.reset();
+
+			this.currentSeat = -1;
+			this.currentRespondent = null;
+			this.state = GameState.CREATED;
+			this.decisionRequest = decisionRequest + 1;
+			this.leaderboard.reset();
+		});
 	}
 
 	/**
@@ -69,7 +367,7 @@ public final class Game
 	private void ensureEnoughPlayers() throws NotEnoughPlayersException
 	{
 		if (players.size() < 1) {
-			eventHandlers.forEach(eventHandler -> eventHandler.onError("Cannot start game, not enough players."));
+			sendError("Cannot start game, not enough players.");
 			throw new NotEnoughPlayersException("Cannot start game, not enough players.");
 		}
 	}
@@ -81,70 +379,135 @@ public final class Game
 	 */
 	private void ensureNoNameCollisions() throws NameCollisionException
 	{
-		HashMap<String, List<Player>> hashMap = nameCollision();
-		if (hashMap.size() > 0) {
-			String message = String.format("Player name %s is not unique.", hashMap);
-			sendEvent(handler -> handler.onError(message));
-			throw new NameCollisionException(message, hashMap);
+		if (registry.hasCollisions()) {
+			Map<String, List<Player>> collisions = registry.getCollisions();
+			String                    message    = String.format("Player name %s is not unique.", collisions.keySet());
+			sendError(message);
+			throw new NameCollisionException(message, collisions);
 		}
 	}
 
 	/**
-	 * Plays the turn of the provided player.
+	 * Plays a single roll for the provided player.
 	 *
-	 * @param player
+	 * @param player The player to roll for.
 	 */
 	private void handleTurn(Player player)
 	{
-		this.currentRespondent = player;
-
 		player.roll(dice);
+		int outcome = dice.outcome();
 
-		if (dice.forcesHardReset()) {
-			sendEvent(handler -> handler.onHardReset(this, player));
+		if (DiceOutcome.forcesHardReset(outcome)) {
+			sendHardReset(player);
 			player.resetPointsHard();
-			playNext();
+			leaderboard.update(currentSeat);
+			this.state = GameState.PASSING;
 			return;
 		}
 
-		if (dice.forcesSoftReset()) {
-			sendEvent(handler -> handler.onSoftReset(this, player));
+		if (DiceOutcome.forcesSoftReset(outcome)) {
+			sendSoftReset(player);
 			player.resetPointsSoft();
-			playNext();
+			leaderboard.update(currentSeat);
+			this.state = GameState.PASSING;
 			return;
 		}
 
-		sendEvent(handler -> handler.onTurnStart(this, player));
-		player.resolveBet(dice);
-		player.addTurnPoints(dice);
+		sendTurnStart(player);
+		player.resolveBet(outcome);
+		player.addTurnPoints(outcome);
+		leaderboard.update(currentSeat);
+		this.state = GameState.AWAITING_DECISION;
+		this.decisionRequest = decisionRequest + 1;
 		player.requestDecision(this);
 	}
 
 	/**
-	 * Allow a player to respond to a game decision response with continue.
+	 * Allow a player to respond to the current decision request with continue.
 	 *
 	 * @param player The player who made a decision.
 	 */
 	public void respondContinue(Player player)
 	{
-		sendEvent(handler -> handler.onDecisionResponse(this, player, GameDecision.CONTINUE));
-		handleTurn(player);
+		respondContinue(player, decisionRequest);
+	}
+
+	/**
+	 * Allow a player to respond to a decision request with continue. The decision is dropped when the request is not the
+	 * current decision request, and rejected when the player is not the current respondent.
+	 *
+	 * @param player  The player who made a decision.
+	 * @param request The number of the decision request, see getDecisionRequest().
+	 */
+	public void respondContinue(Player player, long request)
+	{
+		if (isOwner())
+			applyContinue(player, request);
+		else
+			execute(() -> applyContinue(player, request));
 	}
 
 	/**
-	 * Allow a player to respond to a game decision response with save.
+	 * Applies a continue decision to the game.
+	 *
+	 * @param player  The player who made a decision.
+	 * @param request The number of the decision request.
+	 */
+	private void applyContinue(Player player, long request)
+	{
+		if (!accepts(player, request))
+			return;
+
+		sendDecisionResponse(player, GameDecision.CONTINUE);
+		this.state = GameState.ROLLING;
+		loop();
+	}
+
+	/**
+	 * Allow a player to respond to the current decision request with save.
 	 *
 	 * @param player The player who made a decision.
 	 */
 	public void respondSave(Player player)
 	{
-		sendEvent(handler -> handler.onDecisionResponse(this, player, GameDecision.SAVE));
+		respondSave(player, decisionRequest);
+	}
+
+	/**
+	 * Allow a player to respond to a decision request with save. The decision is dropped when the request is not the
+	 * current decision request, and rejected when the player is not the current respondent.
+	 *
+	 * @param player  The player who made a decision.
+	 * @param request The number of the decision request, see getDecisionRequest().
+	 */
+	public void respondSave(Player player, long request)
+	{
+		if (isOwner())
+			applySave(player, request);
+		else
+			execute(() -> applySave(player, request));
+	}
+
+	/**
+	 * Applies a save decision to the game.
+	 *
+	 * @param player  The player who made a decision.
+	 * @param request The number of the decision request.
+	 */
+	private void applySave(Player player, long request)
+	{
+		if (!accepts(player, request))
+			return;
+
+		sendDecisionResponse(player, GameDecision.SAVE);
 		player.saveTurnPoints();
-		playNext();
+		leaderboard.update(currentSeat);
+		this.state = GameState.PASSING;
+		loop();
 	}
 
 	/**
-	 * Allow a player to respond to a game decision response with bet.
+	 * Allow a player to respond to the current decision request with bet.
 	 *
 	 * @param player The player who made the decision.
 	 * @param bet    The amount of points the player wants to bet.
@@ -153,9 +516,89 @@ public final class Game
 	 */
 	public void respondBet(Player player, int bet) throws NotEnoughPointsException, IllegalArgumentException
 	{
+		respondBet(player, bet, decisionRequest);
+	}
+
+	/**
+	 * Allow a player to respond to a decision request with bet. The decision is dropped when the request is not the
+	 * current decision request, and rejected when the player is not the current respondent. The bet is validated right
+	 * away, and again when the decision is applied.
+	 *
+	 * @param player  The player who made the decision.
+	 * @param bet     The amount of points the player wants to bet.
+	 * @param request The number of the decision request, see getDecisionRequest().
+	 * @throws NotEnoughPointsException If the player doesn't have enough points to bet.
+	 * @throws IllegalArgumentException If the provided amount is negative.
+	 */
+	public void respondBet(Player player, int bet, long request) throws NotEnoughPointsException, IllegalArgumentException
+	{
+		if (isOwner()) {
+			applyBet(player, bet, request);
+			return;
+		}
+
+		player.ensureCanBet(bet);
+		execute(() -> {
+			try {
+				applyBet(player, bet, request);
+			} catch (NotEnoughPointsException e) {
+				sendError(String.format("%s does not have enough points to bet %d.", player.getName(), bet));
+			}
+		});
+	}
+
+	/**
+	 * Applies a bet decision to the game.
+	 *
+	 * @param player  The player who made the decision.
+	 * @param bet     The amount of points the player wants to bet.
+	 * @param request The number of the decision request.
+	 * @throws NotEnoughPointsException If the player doesn't have enough points to bet.
+	 * @throws IllegalArgumentException If the provided amount is negative.
+	 */
+	private void applyBet(Player player, int bet, long request) throws NotEnoughPointsException, IllegalArgumentException
+	{
+		if (!accepts(player, request))
+			return;
+
 		player.bet(bet);
-		sendEvent(handler -> handler.onDecisionResponse(this, player, GameDecision.BET));
-		handleTurn(player);
+		sendDecisionResponse(player, GameDecision.BET);
+		leaderboard.update(currentSeat);
+		this.state = GameState.ROLLING;
+		loop();
+	}
+
+	/**
+	 * Returns true if the game waits for the provided decision request of the provided player. Stale and duplicate
+	 * decisions are expected when decisions race with each other or with a timeout, and are dropped quietly. Decisions
+	 * for the current request made by another player than the respondent are sent to the event handlers as errors.
+	 *
+	 * @param player  The player who made a decision.
+	 * @param request The number of the decision request.
+	 * @return True if the game waits for the provided decision request of the provided player.
+	 */
+	private boolean accepts(Player player, long request)
+	{
+		if (state != GameState.AWAITING_DECISION || request != decisionRequest)
+			return false;
+
+		if (player != currentRespondent) {
+			sendError(String.format("Rejected decision of %s, it is not their turn to decide.", player.getName()));
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Makes the player in the provided seat the current respondent.
+	 *
+	 * @param seat The seat of the player.
+	 */
+	private void setRespondent(int seat)
+	{
+		this.currentSeat = seat;
+		this.currentRespondent = players.get(seat);
 	}
 
 	/**
@@ -163,69 +606,162 @@ public final class Game
 	 */
 	private void playNext()
 	{
-		sendEvent(handler -> handler.onTurnEnd(this, this.currentRespondent));
-
-		int index = players.indexOf(this.currentRespondent);
+		sendTurnEnd(this.currentRespondent);
 
-		if (index + 1 == players.size()) {
+		if (currentSeat + 1 == players.size()) {
 
-			sendEvent(handler -> handler.onRoundEnd(this));
-			Player next = players.get(0);
+			sendRoundEnd();
 			if (hasWinner()) {
-				sendEvent(handler -> handler.onGameEnd(this));
+				this.state = GameState.ENDED;
+				sendGameEnd();
 				return;
 			}
 
-			sendEvent(handler -> handler.onRoundStart(this));
-			handleTurn(next);
+			sendRoundStart();
+			setRespondent(0);
 
 		} else {
 
-			Player next = players.get(index + 1);
-			handleTurn(next);
+			setRespondent(currentSeat + 1);
 		}
+
+		this.state = GameState.ROLLING;
 	}
 
 	/**
-	 * Sends the provided event to all the registered event handlers.
+	 * Returns the handlers subscribed to the provided type of event.
 	 *
-	 * @param consumer The consumer to pass the event handler to.
+	 * @param event The type of event.
+	 * @return The handlers subscribed to the provided type of event.
 	 */
-	private void sendEvent(final Consumer<GameEventHandler> consumer)
+	private GameEventHandler[] subscribers(GameEvent event)
 	{
-		eventHandlers.forEach(handler -> consumer.accept(handler));
+		return subscribers[event.ordinal()];
 	}
 
 	/**
-	 * Delegates the provided consumer to the event handlers in the game.
+	 * Sends the game start event to the subscribed event handlers.
+	 */
+	private void sendGameStart()
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.GAME_START))
+			handler.onGameStart(this);
+	}
+
+	/**
+	 * Sends the game end event to the subscribed event handlers.
+	 */
+	private void sendGameEnd()
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.GAME_END))
+			handler.onGameEnd(this);
+	}
+
+	/**
+	 * Sends the round start event to the subscribed event handlers.
+	 */
+	private void sendRoundStart()
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.ROUND_START))
+			handler.onRoundStart(this);
+	}
+
+	/**
+	 * Sends the round end event to the subscribed event handlers.
+	 */
+	private void sendRoundEnd()
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.ROUND_END))
+			handler.onRoundEnd(this);
+	}
+
+	/**
+	 * Sends the turn start event to the subscribed event handlers.
 	 *
-	 * @param consumer The consumer to delegate to the event handlers.
+	 * @param player The player whose turn it is.
 	 */
-	public void delegateEvent(Consumer<GameEventHandler> consumer)
+	private void sendTurnStart(Player player)
 	{
-		eventHandlers.forEach(handler -> consumer.accept(handler));
+		for (GameEventHandler handler : subscribers(GameEvent.TURN_START))
+			handler.onTurnStart(this, player);
 	}
 
 	/**
-	 * Returns a HashMap of the players with name collisions.
+	 * Sends the turn end event to the subscribed event handlers.
 	 *
-	 * @return The HashMap of the players with name collision
+	 * @param player The player whose turn ended.
 	 */
-	private HashMap<String, List<Player>> nameCollision()
+	private void sendTurnEnd(Player player)
 	{
-		HashMap<String, List<Player>> hashMap = new HashMap<>();
-		for (Player outer : players) {
-			for (Player inner : players) {
-				String outerName = outer.getName();
-				String innerName = inner.getName();
-				if (outer != inner && outerName.equals(innerName)) {
-					if (!hashMap.containsKey(outer)) hashMap.put(outerName, new ArrayList<>());
-					hashMap.get(outerName).add(inner);
-				}
-			}
-		}
+		for (GameEventHandler handler : subscribers(GameEvent.TURN_END))
+			handler.onTurnEnd(this, player);
+	}
+
+	/**
+	 * Sends the decision request event to the subscribed event handlers. Used by players that delegate their decisions
+	 * to the event handlers.
+	 *
+	 * @param player The player to make the decision.
+	 */
+	public void sendDecisionRequest(Player player)
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.DECISION_REQUEST))
+			handler.onDecisionRequest(this, player);
+	}
+
+	/**
+	 * Sends the decision response event to the subscribed event handlers.
+	 *
+	 * @param player   The player whose decision was received.
+	 * @param decision The decision that was made by the player.
+	 */
+	private void sendDecisionResponse(Player player, GameDecision decision)
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.DECISION_RESPONSE))
+			handler.onDecisionResponse(this, player, decision);
+	}
+
+	/**
+	 * Sends the hard reset event to the subscribed event handlers.
+	 *
+	 * @param player The player who must reset their bank.
+	 */
+	private void sendHardReset(Player player)
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.HARD_RESET))
+			handler.onHardReset(this, player);
+	}
+
+	/**
+	 * Sends the soft reset event to the subscribed event handlers.
+	 *
+	 * @param player The player who must reset their turn total.
+	 */
+	private void sendSoftReset(Player player)
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.SOFT_RESET))
+			handler.onSoftReset(this, player);
+	}
+
+	/**
+	 * Sends the error event to the subscribed event handlers.
+	 *
+	 * @param message The message to display.
+	 */
+	private void sendError(String message)
+	{
+		for (GameEventHandler handler : subscribers(GameEvent.ERROR))
+			handler.onError(message);
+	}
 
-		return hashMap;
+	/**
+	 * Delegates the provided consumer to the event handlers in the game.
+	 *
+	 * @param consumer The consumer to delegate to the event handlers.
+	 */
+	public void delegateEvent(Consumer<GameEventHandler> consumer)
+	{
+		eventHandlers.forEach(handler -> consumer.accept(handler));
 	}
 
 	/**
@@ -235,11 +771,7 @@ public final class Game
 	 */
 	private boolean hasWinner()
 	{
-		for (Player player : this.players)
-			if (player.getTotalPoints() >= 100)
-				return true;
-
-		return false;
+		return leaderboard.getLeaderPoints() >= WINNING_POINTS;
 	}
 
 	/**
@@ -249,23 +781,236 @@ public final class Game
 	 */
 	public List<Player> getWinners()
 	{
-		List<Player> players = new ArrayList<>(this.players);
+		return leaderboard.getLeaders();
+	}
 
-		// Sort the players.
-		players.sort((a, b) -> Integer.compare(b.getTotalPoints(), a.getTotalPoints()));
-		int firstTotal = players.get(0).getTotalPoints();
+	/**
+	 * Takes a snapshot of the state of the game. Must be called by the thread playing the game, or while the game is
+	 * idle.
+	 *
+	 * @return The snapshot.
+	 * @throws IllegalStateException When another thread is playing the game.
+	 */
+	public GameSnapshot snapshot()
+	{
+		GameSnapshot snapshot = new GameSnapshot(players.size());
+		snapshot(snapshot);
 
-		if (players.size() < 2)
-			return players;
+		return snapshot;
+	}
 
-		// Return the sublist from the first element to the first element that doesn't at least go even on points.
-		for (int i = 1; i < players.size(); i++) {
-			if (firstTotal != players.get(i).getTotalPoints()) {
-				return players.subList(0, i);
-			}
+	/**
+	 * Takes a snapshot of the state of the game into the provided snapshot, without allocating. Must be called by the
+	 * thread playing the game, or while the game is idle, so the snapshot never tears against a running command.
+	 *
+	 * @param snapshot The snapshot to overwrite, must be sized for the number of players in the game.
+	 * @throws IllegalArgumentException When the snapshot has the wrong number of players.
+	 * @throws IllegalStateException    When another thread is playing the game.
+	 */
+	public void snapshot(@NotNull GameSnapshot snapshot)
+	{
+		ensureSnapshotSize(snapshot);
+
+		Thread current = Thread.currentThread();
+		if (owner == current) {
+			capture(snapshot);
+			return;
+		}
+
+		if (!acquire(current))
+			throw new IllegalStateException("Cannot snapshot the game, it is being played by another thread.");
+
+		try {
+			capture(snapshot);
+		} finally {
+			release(current);
+		}
+	}
+
+	/**
+	 * Copies the state of the game into the provided snapshot, on the thread playing the game.
+	 *
+	 * @param snapshot The snapshot to overwrite.
+	 */
+	private void capture(GameSnapshot snapshot)
+	{
+		for (int seat = 0; seat < players.size(); seat++) {
+			Player player = players.get(seat);
+			snapshot.turnPoints[seat] = player.getTurnPoints();
+			snapshot.bankPoints[seat] = player.getBankPoints();
+			snapshot.currentBet[seat] = player.getCurrentBet();
+			snapshot.lastRoll[seat] = player.getLastRoll();
+		}
+
+		snapshot.respondent = currentSeat;
+
+		snapshot.state = state;
+		snapshot.hasDiceState = dice.isRestorable();
+		snapshot.diceState = snapshot.hasDiceState ? dice.getState() : 0;
+		snapshot.diceOutcome = snapshot.hasDiceState ? dice.outcome() : 0;
+	}
+
+	/**
+	 * Restores the game to the provided snapshot. The state of the dice and the outcome of their last roll are only
+	 * restored when they were captured. The game
+	 * does not resume playing, use resume() for that. Decisions requested before the restore are dropped. The restore
+	 * is applied right away, without allocating, when called by the thread playing the game or while the game is idle.
+	 * Otherwise it is queued in the mailbox, and the snapshot must not be changed until the restore has run.
+	 *
+	 * @param snapshot The snapshot to restore.
+	 * @throws IllegalArgumentException      When the snapshot has the wrong number of players, an unknown respondent or
+	 *                                       an unknown roll of the dice.
+	 * @throws UnsupportedOperationException When the snapshot holds the state of the dice, and the dice are not
+	 *                                       restorable.
+	 */
+	public void restore(@NotNull GameSnapshot snapshot)
+	{
+		ensureSnapshotSize(snapshot);
+		if (snapshot.respondent < -1 || snapshot.respondent >= players.size())
+			throw new IllegalArgumentException("Snapshot holds an unknown respondent.");
+		if (snapshot.hasDiceState && !DiceOutcome.isValid(snapshot.diceOutcome))
+			throw new IllegalArgumentException("Snapshot holds an unknown roll of the dice.");
+		if (snapshot.hasDiceState && !dice.isRestorable())
+			throw new UnsupportedOperationException("The state of the dice cannot be restored.");
+
+		Thread current = Thread.currentThread();
+		if (owner == current) {
+			apply(snapshot);
+			return;
+		}
+
+		if (!acquire(current)) {
+			execute(() -> apply(snapshot));
+			return;
+		}
+
+		try {
+			apply(snapshot);
+		} finally {
+			release(current);
 		}
+	}
 
-		return players;
+	/**
+	 * Copies the state in the provided snapshot into the game, on the thread playing the game.
+	 *
+	 * @param snapshot The snapshot to restore.
+	 */
+	private void apply(GameSnapshot snapshot)
+	{
+		for (int seat = 0; seat < players.size(); seat++) {
+			players.get(seat).restore(
+					snapshot.turnPoints[seat],
+					snapshot.bankPoints[seat],
+					snapshot.currentBet[seat],
+					snapshot.lastRoll[seat]
+			);
+		}
+
+		this.currentSeat = snapshot.respondent;
+		this.currentRespondent = snapshot.respondent < 0 ? null : players.get(snapshot.respondent);
+		this.state = snapshot.state;
+		this.decisionRequest = decisionRequest + 1;
+		this.leaderboard.reset();
+		if (snapshot.hasDiceState)
+			dice.setState(snapshot.diceState, snapshot.diceOutcome);
+	}
+
+	/**
+	 * Ensures that the provided snapshot is sized for the number of players in the game.
+	 *
+	 * @param snapshot The snapshot.
+	 * @throws IllegalArgumentException When the snapshot has the wrong number of players.
+	 */
+	private void ensureSnapshotSize(GameSnapshot snapshot)
+	{
+		if (snapshot.getPlayerCount() != players.size())
+			throw new IllegalArgumentException("Snapshot does not match the number of players in the game.");
+	}
+
+	/**
+	 * Returns the seat of the provided player.
+	 *
+	 * @param player The player.
+	 * @return The seat of the provided player, -1 if the player is not in the game.
+	 */
+	public int getSeat(Player player)
+	{
+		return registry.getSeat(player);
+	}
+
+	/**
+	 * Returns the player in the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The player in the provided seat.
+	 */
+	public Player getPlayer(int seat)
+	{
+		return registry.getPlayer(seat);
+	}
+
+	/**
+	 * Returns the first player in the game with the provided name.
+	 *
+	 * @param name The name.
+	 * @return The first player in the game with the provided name, null if there is none.
+	 */
+	@Nullable public Player getPlayer(String name)
+	{
+		return registry.getPlayer(name);
+	}
+
+	/**
+	 * Returns the number of players in the game.
+	 *
+	 * @return The number of players in the game.
+	 */
+	public int getPlayerCount()
+	{
+		return players.size();
+	}
+
+	/**
+	 * Returns the player currently playing their turn.
+	 *
+	 * @return The player currently playing their turn, null before the game started.
+	 */
+	@Nullable public Player getCurrentRespondent()
+	{
+		return currentRespondent;
+	}
+
+	/**
+	 * Returns the outcome of the last roll of the dice, packed as described by DiceOutcome. A restore brings back the
+	 * outcome along with the state of the dice, when the snapshot holds the state of the dice.
+	 *
+	 * @return The outcome of the last roll of the dice.
+	 */
+	public int getLastOutcome()
+	{
+		return dice.outcome();
+	}
+
+	/**
+	 * Returns the number of the current decision request. Pass it along with a decision to have the decision rejected
+	 * once the request is stale.
+	 *
+	 * @return The number of the current decision request.
+	 */
+	public long getDecisionRequest()
+	{
+		return decisionRequest;
+	}
+
+	/**
+	 * Returns the state of the turn loop.
+	 *
+	 * @return The state of the turn loop.
+	 */
+	public GameState getState()
+	{
+		return state;
 	}
 
 	/**
@@ -0,0 +1,16 @@
+package tvkb.pig;
+
+public enum GameEvent
+{
+	GAME_START,
+	GAME_END,
+	ROUND_START,
+	ROUND_END,
+	TURN_START,
+	TURN_END,
+	DECISION_REQUEST,
+	DECISION_RESPONSE,
+	HARD_RESET,
+	SOFT_RESET,
+	ERROR,
+}
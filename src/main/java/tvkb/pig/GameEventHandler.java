@@ -1,8 +1,21 @@
 package tvkb.pig;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public interface GameEventHandler
 {
 
+	/**
+	 * Returns the types of events the handler wants to receive. Read once when the handler is added to a game.
+	 *
+	 * @return The types of events the handler wants to receive.
+	 */
+	default Set<GameEvent> getSubscriptions()
+	{
+		return EnumSet.allOf(GameEvent.class);
+	}
+
 	/**
 	 * Called when a new game starts.
 	 *
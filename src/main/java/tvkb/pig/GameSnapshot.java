@@ -0,0 +1,234 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copy of the state of a game, taken by Game.snapshot() and restored by Game.restore(). A snapshot only holds a few
+ * ints per player, and can be reused for any number of snapshots of games with the same number of players. Snapshots
+ * can also be filled through the setters, to restore a game from a checkpoint or a save file.
+ */
+public final class GameSnapshot
+{
+
+	/**
+	 * The turn points of the players, by seat.
+	 */
+	@NotNull final int[] turnPoints;
+
+	/**
+	 * The bank points of the players, by seat.
+	 */
+	@NotNull final int[] bankPoints;
+
+	/**
+	 * The current bets of the players, by seat.
+	 */
+	@NotNull final int[] currentBet;
+
+	/**
+	 * The last rolls of the players, by seat.
+	 */
+	@NotNull final int[] lastRoll;
+
+	/**
+	 * The seat of the current respondent, -1 before the game started.
+	 */
+	int respondent = -1;
+
+	/**
+	 * The state of the turn loop.
+	 */
+	@NotNull GameState state = GameState.CREATED;
+
+	/**
+	 * Whether or not the state of the dice was captured.
+	 */
+	boolean hasDiceState = false;
+
+	/**
+	 * The state of the dice, when captured.
+	 */
+	long diceState = 0;
+
+	/**
+	 * The outcome of the last roll of the dice, when the state of the dice was captured.
+	 */
+	int diceOutcome = 0;
+
+	/**
+	 * Creates a new empty snapshot.
+	 *
+	 * @param players The number of players in the games to take snapshots of.
+	 */
+	public GameSnapshot(int players)
+	{
+		this.turnPoints = new int[players];
+		this.bankPoints = new int[players];
+		this.currentBet = new int[players];
+		this.lastRoll = new int[players];
+	}
+
+	/**
+	 * Returns the number of players in the snapshot.
+	 *
+	 * @return The number of players in the snapshot.
+	 */
+	public int getPlayerCount()
+	{
+		return turnPoints.length;
+	}
+
+	/**
+	 * Returns the turn points of the player in the provided seat.
+	 *
+	 * @param seat The seat of the player.
+	 * @return The turn points of the player in the provided seat.
+	 */
+	public int getTurnPoints(int seat)
+	{
+		return turnPoints[seat];
+	}
+
+	/**
+	 * Returns the bank points of the player in the provided seat.
+	 *
+	 * @param seat The seat of the player.
+	 * @return The bank points of the player in the provided seat.
+	 */
+	public int getBankPoints(int seat)
+	{
+		return bankPoints[seat];
+	}
+
+	/**
+	 * Returns the current bet of the player in the provided seat.
+	 *
+	 * @param seat The seat of the player.
+	 * @return The current bet of the player in the provided seat.
+	 */
+	public int getCurrentBet(int seat)
+	{
+		return currentBet[seat];
+	}
+
+	/**
+	 * Returns the last roll of the player in the provided seat.
+	 *
+	 * @param seat The seat of the player.
+	 * @return The last roll of the player in the provided seat.
+	 */
+	public int getLastRoll(int seat)
+	{
+		return lastRoll[seat];
+	}
+
+	/**
+	 * Returns the seat of the current respondent.
+	 *
+	 * @return The seat of the current respondent, -1 before the game started.
+	 */
+	public int getRespondent()
+	{
+		return respondent;
+	}
+
+	/**
+	 * Returns the state of the turn loop.
+	 *
+	 * @return The state of the turn loop.
+	 */
+	public GameState getState()
+	{
+		return state;
+	}
+
+	/**
+	 * Returns true if the state of the dice was captured.
+	 *
+	 * @return True if the state of the dice was captured.
+	 */
+	public boolean hasDiceState()
+	{
+		return hasDiceState;
+	}
+
+	/**
+	 * Returns the state of the dice, when captured.
+	 *
+	 * @return The state of the dice.
+	 */
+	public long getDiceState()
+	{
+		return diceState;
+	}
+
+	/**
+	 * Returns the outcome of the last roll of the dice, when the state of the dice was captured.
+	 *
+	 * @return The packed outcome of the last roll of the dice.
+	 */
+	public int getDiceOutcome()
+	{
+		return diceOutcome;
+	}
+
+	/**
+	 * Sets the points and last roll of the player in the provided seat.
+	 *
+	 * @param seat       The seat.
+	 * @param turnPoints The turn points of the player.
+	 * @param bankPoints The bank points of the player.
+	 * @param currentBet The current bet of the player.
+	 * @param lastRoll   The last roll of the player.
+	 */
+	public void setPlayer(int seat, int turnPoints, int bankPoints, int currentBet, int lastRoll)
+	{
+		this.turnPoints[seat] = turnPoints;
+		this.bankPoints[seat] = bankPoints;
+		this.currentBet[seat] = currentBet;
+		this.lastRoll[seat] = lastRoll;
+	}
+
+	/**
+	 * Sets the seat of the current respondent.
+	 *
+	 * @param respondent The seat of the current respondent, -1 before the game started.
+	 */
+	public void setRespondent(int respondent)
+	{
+		this.respondent = respondent;
+	}
+
+	/**
+	 * Sets the state of the turn loop.
+	 *
+	 * @param state The state of the turn loop.
+	 */
+	public void setState(@NotNull GameState state)
+	{
+		this.state = state;
+	}
+
+	/**
+	 * Sets the state of the dice and the outcome of their last roll.
+	 *
+	 * @param diceState   The state of the dice.
+	 * @param diceOutcome The packed outcome of the last roll of the dice.
+	 */
+	public void setDiceState(long diceState, int diceOutcome)
+	{
+		this.hasDiceState = true;
+		this.diceState = diceState;
+		this.diceOutcome = diceOutcome;
+	}
+
+	/**
+	 * Clears the state of the dice, so the dice are not restored.
+	 */
+	public void clearDiceState()
+	{
+		this.hasDiceState = false;
+		this.diceState = 0;
+		this.diceOutcome = 0;
+	}
+}
@@ -0,0 +1,10 @@
+package tvkb.pig;
+
+public enum GameState
+{
+	CREATED,
+	ROLLING,
+	PASSING,
+	AWAITING_DECISION,
+	ENDED,
+}
@@ -20,6 +20,6 @@ public class HumanPlayer extends Player
 	 */
 	@Override public void requestDecision(Game game)
 	{
-		game.delegateEvent(handler -> handler.onDecisionRequest(game, this));
+		game.sendDecisionRequest(this);
 	}
 }
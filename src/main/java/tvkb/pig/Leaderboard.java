@@ -0,0 +1,184 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the players with the most total points. The game reports every change to the points of a seat, after which
+ * the leaders are updated in O(k) for k leaders. Only when the last leader loses points are all seats scanned again.
+ */
+class Leaderboard
+{
+
+	/**
+	 * The players in the game, in seat order.
+	 */
+	@NotNull private List<Player> players;
+
+	/**
+	 * The last known total points of every seat.
+	 */
+	@NotNull private int[] totals;
+
+	/**
+	 * The seats with the most total points, in seat order.
+	 */
+	@NotNull private int[] leaders;
+
+	/**
+	 * The number of seats with the most total points.
+	 */
+	private int leaderCount = 0;
+
+	/**
+	 * The total points of the leaders.
+	 */
+	private int leaderPoints = Integer.MIN_VALUE;
+
+	/**
+	 * Whether or not the leaders must be recomputed before they are read.
+	 */
+	private boolean dirty = true;
+
+	/**
+	 * Creates a new leaderboard.
+	 *
+	 * @param players The players in the game, in seat order.
+	 */
+	Leaderboard(@NotNull List<Player> players)
+	{
+		this.players = players;
+		this.totals = new int[players.size()];
+		this.leaders = new int[players.size()];
+		reset();
+	}
+
+	/**
+	 * Reads the total points of every seat again and recomputes the leaders.
+	 */
+	void reset()
+	{
+		for (int seat = 0; seat < totals.length; seat++)
+			totals[seat] = players.get(seat).getTotalPoints();
+
+		dirty = true;
+	}
+
+	/**
+	 * Updates the leaders after the points of the provided seat changed.
+	 *
+	 * @param seat The seat whose points changed.
+	 */
+	void update(int seat)
+	{
+		int previous = totals[seat];
+		int current  = players.get(seat).getTotalPoints();
+		totals[seat] = current;
+
+		if (dirty || previous == current)
+			return;
+
+		if (current > leaderPoints) {
+			leaders[0] = seat;
+			leaderCount = 1;
+			leaderPoints = current;
+			return;
+		}
+
+		if (current == leaderPoints) {
+			insertLeader(seat);
+			return;
+		}
+
+		if (previous == leaderPoints) {
+			if (leaderCount == 1)
+				dirty = true;
+			else
+				removeLeader(seat);
+		}
+	}
+
+	/**
+	 * Returns the total points of the leaders.
+	 *
+	 * @return The total points of the leaders.
+	 */
+	int getLeaderPoints()
+	{
+		if (dirty)
+			recompute();
+
+		return leaderPoints;
+	}
+
+	/**
+	 * Returns the players with the most total points, in seat order.
+	 *
+	 * @return The players with the most total points.
+	 */
+	List<Player> getLeaders()
+	{
+		if (dirty)
+			recompute();
+
+		List<Player> result = new ArrayList<>(leaderCount);
+		for (int i = 0; i < leaderCount; i++)
+			result.add(players.get(leaders[i]));
+
+		return result;
+	}
+
+	/**
+	 * Adds the provided seat to the leaders, keeping them in seat order.
+	 *
+	 * @param seat The seat to add.
+	 */
+	private void insertLeader(int seat)
+	{
+		int i = leaderCount++;
+		while (i > 0 && leaders[i - 1] > seat) {
+			leaders[i] = leaders[i - 1];
+			i--;
+		}
+
+		leaders[i] = seat;
+	}
+
+	/**
+	 * Removes the provided seat from the leaders, keeping them in seat order.
+	 *
+	 * @param seat The seat to remove.
+	 */
+	private void removeLeader(int seat)
+	{
+		int i = 0;
+		while (leaders[i] != seat)
+			i++;
+
+		System.arraycopy(leaders, i + 1, leaders, i, leaderCount - i - 1);
+		leaderCount--;
+	}
+
+	/**
+	 * Scans all seats for the leaders.
+	 */
+	private void recompute()
+	{
+		leaderCount = 0;
+		leaderPoints = Integer.MIN_VALUE;
+
+		for (int seat = 0; seat < totals.length; seat++) {
+			if (totals[seat] > leaderPoints) {
+				leaderPoints = totals[seat];
+				leaderCount = 0;
+			}
+
+			if (totals[seat] == leaderPoints)
+				leaders[leaderCount++] = seat;
+		}
+
+		dirty = false;
+	}
+}
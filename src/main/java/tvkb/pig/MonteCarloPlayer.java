@@ -0,0 +1,258 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.sim.ArrayGame;
+import tvkb.pig.sim.HoldStrategy;
+import tvkb.pig.sim.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Computer controlled player choosing between continuing, saving and betting by Monte Carlo search. Every decision
+ * plays as many rollouts as fit in the time budget, spread over the threads of a fork/join pool. The actions are picked
+ * by UCB1, using statistics shared by the threads through atomic counters. Rollouts are played on an ArrayGame copied
+ * from the current game, with every seat holding at 21 after the first decision.
+ */
+public class MonteCarloPlayer extends Player
+{
+
+	/**
+	 * The exploration constant of UCB1.
+	 */
+	private static final double EXPLORATION = Math.sqrt(2);
+
+	/**
+	 * The reward of a rollout that was won alone. Shared wins are rewarded with half of this.
+	 */
+	private static final long WIN = 2;
+
+	/**
+	 * The pool to play the rollouts on.
+	 */
+	@NotNull private ForkJoinPool pool;
+
+	/**
+	 * The time budget of every decision, in nanoseconds.
+	 */
+	private long budget;
+
+	/**
+	 * The amounts of points that can be bet.
+	 */
+	@NotNull private int[] betSizes;
+
+	/**
+	 * Seeds the dice of the rollouts.
+	 */
+	@NotNull private SplitMixRandom random = new SplitMixRandom();
+
+	/**
+	 * Creates a new Monte Carlo player playing the rollouts on the common fork/join pool.
+	 *
+	 * @param name   The name of the player.
+	 * @param budget The time budget of every decision, in milliseconds.
+	 */
+	public MonteCarloPlayer(@NotNull String name, long budget)
+	{
+		this(name, budget, new int[]{5, 10, 20}, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a new Monte Carlo player.
+	 *
+	 * @param name     The name of the player.
+	 * @param budget   The time budget of every decision, in milliseconds.
+	 * @param betSizes The amounts of points that can be bet.
+	 * @param pool     The pool to play the rollouts on.
+	 */
+	public MonteCarloPlayer(@NotNull String name, long budget, @NotNull int[] betSizes, @NotNull ForkJoinPool pool)
+	{
+		super(name);
+
+		this.budget = budget * 1_000_000;
+		this.betSizes = betSizes;
+		this.pool = pool;
+	}
+
+	/**
+	 * Request a game decision from the player.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override protected void requestDecision(Game game)
+	{
+		int seats = (int) game.getPlayers().count();
+
+		Strategy[] strategies = new Strategy[seats];
+		for (int seat = 0; seat < seats; seat++)
+			strategies[seat] = new HoldStrategy(21);
+
+		ArrayGame root = new ArrayGame(new DicePair(random.split()), strategies);
+		root.copyFrom(game);
+
+		// Action zero is saving, action one is continuing and the remaining actions are the affordable bets.
+		List<Integer> bets = new ArrayList<>();
+		for (int size : betSizes)
+			if (this.currentBet + size <= this.bankPoints)
+				bets.add(size);
+
+		Search search = new Search(root, bets, System.nanoTime() + budget);
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < pool.getParallelism(); i++)
+			tasks.add(pool.submit(search.worker(new DicePair(random.split()))));
+		for (ForkJoinTask<?> task : tasks)
+			task.join();
+
+		int action = search.best();
+
+		if (action == 0) {
+			game.respondSave(this);
+			return;
+		}
+
+		if (action > 1) {
+			try {
+				game.respondBet(this, bets.get(action - 2));
+				return;
+			} catch (NotEnoughPointsException e) {
+				// Only affordable bets are searched, fall through to continuing.
+			}
+		}
+
+		game.respondContinue(this);
+	}
+
+	/**
+	 * The statistics of a single decision, shared by the threads playing its rollouts.
+	 */
+	private static class Search
+	{
+
+		/**
+		 * The state of the game at the decision.
+		 */
+		@NotNull private ArrayGame root;
+
+		/**
+		 * The affordable bets.
+		 */
+		@NotNull private List<Integer> bets;
+
+		/**
+		 * The time at which the search stops, as returned by System.nanoTime().
+		 */
+		private long deadline;
+
+		/**
+		 * The number of rollouts started for every action.
+		 */
+		@NotNull private AtomicLongArray visits;
+
+		/**
+		 * The summed rewards of every action.
+		 */
+		@NotNull private AtomicLongArray rewards;
+
+		/**
+		 * Creates the statistics of a new decision.
+		 *
+		 * @param root     The state of the game at the decision.
+		 * @param bets     The affordable bets.
+		 * @param deadline The time at which the search stops.
+		 */
+		Search(@NotNull ArrayGame root, @NotNull List<Integer> bets, long deadline)
+		{
+			this.root = root;
+			this.bets = bets;
+			this.deadline = deadline;
+			this.visits = new AtomicLongArray(2 + bets.size());
+			this.rewards = new AtomicLongArray(2 + bets.size());
+		}
+
+		/**
+		 * Returns a task playing rollouts until the deadline.
+		 *
+		 * @param dice The dice used by the rollouts of the task.
+		 * @return The task playing rollouts until the deadline.
+		 */
+		Runnable worker(@NotNull Dice dice)
+		{
+			return () -> {
+				Strategy[] strategies = new Strategy[root.getSeats()];
+				for (int seat = 0; seat < strategies.length; seat++)
+					strategies[seat] = new HoldStrategy(21);
+
+				ArrayGame rollout = new ArrayGame(dice, strategies);
+				int       seat    = root.getCurrentSeat();
+
+				// Always play at least one rollout, so every decision has statistics.
+				do {
+					int action = select();
+
+					// Count the visit before playing, so other threads spread out over the other actions.
+					visits.incrementAndGet(action);
+
+					rollout.copyFrom(root);
+					if (action == 0)
+						rollout.resume(GameDecision.SAVE, 0);
+					else if (action == 1)
+						rollout.resume(GameDecision.CONTINUE, 0);
+					else
+						rollout.resume(GameDecision.BET, bets.get(action - 2));
+
+					if (rollout.isWinner(seat))
+						rewards.addAndGet(action, rollout.getWinnerCount() == 1 ? WIN : WIN / 2);
+
+				} while (System.nanoTime() < deadline);
+			};
+		}
+
+		/**
+		 * Returns the action to play the next rollout for, by UCB1.
+		 *
+		 * @return The action to play the next rollout for.
+		 */
+		private int select()
+		{
+			long total = 0;
+			for (int action = 0; action < visits.length(); action++)
+				total += visits.get(action);
+
+			int    best      = 0;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			for (int action = 0; action < visits.length(); action++) {
+				long count = visits.get(action);
+				if (count == 0)
+					return action;
+
+				double score = (double) rewards.get(action) / (WIN * count) + EXPLORATION * Math.sqrt(Math.log(total) / count);
+				if (score > bestScore) {
+					bestScore = score;
+					best = action;
+				}
+			}
+
+			return best;
+		}
+
+		/**
+		 * Returns the action with the most rollouts.
+		 *
+		 * @return The action with the most rollouts.
+		 */
+		int best()
+		{
+			int best = 0;
+			for (int action = 1; action < visits.length(); action++)
+				if (visits.get(action) > visits.get(best))
+					best = action;
+
+			return best;
+		}
+	}
+}
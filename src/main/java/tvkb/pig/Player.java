@@ -55,7 +55,7 @@ public abstract class Player
 	public int roll(Dice dice)
 	{
 		dice.roll();
-		this.lastRoll = dice.sum();
+		this.lastRoll = DiceOutcome.sum(dice.outcome());
 
 		return this.lastRoll;
 	}
@@ -68,6 +68,21 @@ public abstract class Player
 	 * @throws IllegalArgumentException If the provided amount is negative.
 	 */
 	public void bet(final int amount) throws NotEnoughPointsException, IllegalArgumentException
+	{
+		ensureCanBet(amount);
+
+		this.currentBet += amount;
+		this.bankPoints -= amount;
+	}
+
+	/**
+	 * Ensures that the player can bet the provided amount of points.
+	 *
+	 * @param amount The amount of points to bet.
+	 * @throws NotEnoughPointsException If the player doesn't have enough points to bet.
+	 * @throws IllegalArgumentException If the provided amount is negative.
+	 */
+	public void ensureCanBet(final int amount) throws NotEnoughPointsException, IllegalArgumentException
 	{
 		if (amount < 0) {
 			throw new IllegalArgumentException("Bet amount cannot be less than one.");
@@ -76,9 +91,6 @@ public abstract class Player
 		if (this.currentBet + amount > bankPoints) {
 			throw new NotEnoughPointsException("Not enough points to bet", bankPoints, this.currentBet + amount);
 		}
-
-		this.currentBet += amount;
-		this.bankPoints -= amount;
 	}
 
 	/**
@@ -88,7 +100,17 @@ public abstract class Player
 	 */
 	public void resolveBet(Dice dice)
 	{
-		if (dice.winsBet()) {
+		resolveBet(dice.outcome());
+	}
+
+	/**
+	 * Resolves the bets of the player.
+	 *
+	 * @param outcome The packed outcome of the thrown dice.
+	 */
+	public void resolveBet(int outcome)
+	{
+		if (DiceOutcome.winsBet(outcome)) {
 			this.bankPoints += this.currentBet * 2;
 			this.currentBet = 0;
 			return;
@@ -172,7 +194,17 @@ public abstract class Player
 	 */
 	public void addTurnPoints(Dice dice)
 	{
-		this.turnPoints += dice.sum();
+		addTurnPoints(dice.outcome());
+	}
+
+	/**
+	 * Adds the sum of the provided outcome to the players turn total.
+	 *
+	 * @param outcome The packed outcome of the thrown dice.
+	 */
+	public void addTurnPoints(int outcome)
+	{
+		this.turnPoints += DiceOutcome.sum(outcome);
 	}
 
 	/**
@@ -184,6 +216,33 @@ public abstract class Player
 		this.turnPoints = 0;
 	}
 
+	/**
+	 * Resets the player to the state of a new player, so the instance can join another game.
+	 */
+	public void reset()
+	{
+		this.turnPoints = 0;
+		this.bankPoints = 0;
+		this.currentBet = 0;
+		this.lastRoll = 0;
+	}
+
+	/**
+	 * Restores the points of the player.
+	 *
+	 * @param turnPoints The turn points to restore.
+	 * @param bankPoints The bank points to restore.
+	 * @param currentBet The current bet to restore.
+	 * @param lastRoll   The last roll to restore.
+	 */
+	void restore(int turnPoints, int bankPoints, int currentBet, int lastRoll)
+	{
+		this.turnPoints = turnPoints;
+		this.bankPoints = bankPoints;
+		this.currentBet = currentBet;
+		this.lastRoll = lastRoll;
+	}
+
 	/**
 	 * Returns the last roll of the player.
 	 *
@@ -0,0 +1,165 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Assigns stable seat numbers to players and looks them up by seat, name or instance in constant time. Name collisions
+ * are recorded while registering, so all of them are known after a single pass over the players.
+ */
+public class PlayerRegistry
+{
+
+	/**
+	 * The registered players, by seat.
+	 */
+	@NotNull private List<Player> players = new ArrayList<>();
+
+	/**
+	 * The seat of the first player registered with each name.
+	 */
+	@NotNull private Map<String, Integer> seatsByName = new HashMap<>();
+
+	/**
+	 * The seat of each registered player instance.
+	 */
+	@NotNull private Map<Player, Integer> seatsByPlayer = new IdentityHashMap<>();
+
+	/**
+	 * All players sharing a name with another player, by name.
+	 */
+	@NotNull private Map<String, List<Player>> collisions = new HashMap<>();
+
+	/**
+	 * Creates a new empty registry.
+	 */
+	public PlayerRegistry()
+	{
+	}
+
+	/**
+	 * Creates a new registry seating the provided players in order.
+	 *
+	 * @param players The players to register.
+	 */
+	public PlayerRegistry(@NotNull Collection<Player> players)
+	{
+		for (Player player : players)
+			register(player);
+	}
+
+	/**
+	 * Registers the provided player in the next free seat. A player whose name is already taken is seated as well, but
+	 * recorded as a name collision.
+	 *
+	 * @param player The player to register.
+	 * @return The seat of the player.
+	 * @throws IllegalArgumentException When the player instance is already registered.
+	 */
+	public int register(@NotNull Player player)
+	{
+		if (seatsByPlayer.containsKey(player))
+			throw new IllegalArgumentException(String.format("Player %s is already registered.", player.getName()));
+
+		int     seat     = players.size();
+		Integer existing = seatsByName.putIfAbsent(player.getName(), seat);
+
+		players.add(player);
+		seatsByPlayer.put(player, seat);
+
+		if (existing != null) {
+			List<Player> colliding = collisions.get(player.getName());
+			if (colliding == null) {
+				colliding = new ArrayList<>();
+				colliding.add(players.get(existing));
+				collisions.put(player.getName(), colliding);
+			}
+
+			colliding.add(player);
+		}
+
+		return seat;
+	}
+
+	/**
+	 * Returns the player in the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The player in the provided seat.
+	 */
+	public Player getPlayer(int seat)
+	{
+		return players.get(seat);
+	}
+
+	/**
+	 * Returns the first player registered with the provided name.
+	 *
+	 * @param name The name.
+	 * @return The first player registered with the provided name, null if there is none.
+	 */
+	@Nullable public Player getPlayer(String name)
+	{
+		Integer seat = seatsByName.get(name);
+
+		return seat == null ? null : players.get(seat);
+	}
+
+	/**
+	 * Returns the seat of the first player registered with the provided name.
+	 *
+	 * @param name The name.
+	 * @return The seat of the first player registered with the provided name, -1 if there is none.
+	 */
+	public int getSeat(String name)
+	{
+		Integer seat = seatsByName.get(name);
+
+		return seat == null ? -1 : seat;
+	}
+
+	/**
+	 * Returns the seat of the provided player.
+	 *
+	 * @param player The player.
+	 * @return The seat of the provided player, -1 if the player is not registered.
+	 */
+	public int getSeat(Player player)
+	{
+		Integer seat = seatsByPlayer.get(player);
+
+		return seat == null ? -1 : seat;
+	}
+
+	/**
+	 * Returns the number of registered players.
+	 *
+	 * @return The number of registered players.
+	 */
+	public int size()
+	{
+		return players.size();
+	}
+
+	/**
+	 * Returns true if two or more players share a name.
+	 *
+	 * @return True if two or more players share a name.
+	 */
+	public boolean hasCollisions()
+	{
+		return !collisions.isEmpty();
+	}
+
+	/**
+	 * Returns all players sharing a name with another player, by name.
+	 *
+	 * @return All players sharing a name with another player, by name.
+	 */
+	public Map<String, List<Player>> getCollisions()
+	{
+		return collisions;
+	}
+}
@@ -0,0 +1,102 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.policy.MappedPolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+public class PolicyPlayer extends Player
+{
+
+	/**
+	 * The policy file to play by.
+	 */
+	@NotNull private Path file;
+
+	/**
+	 * The policy to play by, mapped on the first decision.
+	 */
+	@Nullable private MappedPolicy policy;
+
+	/**
+	 * Creates a new computer controlled player playing by a precomputed policy.
+	 *
+	 * @param name The name of the player.
+	 * @param file The policy file written by PolicyFile.
+	 */
+	public PolicyPlayer(@NotNull String name, @NotNull Path file)
+	{
+		super(name);
+
+		this.file = file;
+	}
+
+	/**
+	 * Request a game decision from the player. The opponent is the other player with the most points in the bank.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override protected void requestDecision(Game game)
+	{
+		MappedPolicy policy       = getPolicy();
+		int          opponentBank = getOpponentBank(game);
+
+		GameDecision decision = policy.getDecision(this.bankPoints, opponentBank, this.turnPoints);
+
+		if (decision == GameDecision.SAVE) {
+			game.respondSave(this);
+			return;
+		}
+
+		if (decision == GameDecision.BET) {
+			try {
+				game.respondBet(this, policy.getBet(this.bankPoints, opponentBank, this.turnPoints));
+				return;
+			} catch (NotEnoughPointsException e) {
+				// A bet left in the pot by a reset still counts towards the bank, roll without betting instead.
+			}
+		}
+
+		game.respondContinue(this);
+	}
+
+	/**
+	 * Returns the most points in the bank of any other player in the provided game.
+	 *
+	 * @param game The current game instance.
+	 * @return The most points in the bank of any other player, zero when there is no other player.
+	 */
+	private int getOpponentBank(Game game)
+	{
+		int opponentBank = 0;
+		for (int seat = 0; seat < game.getPlayerCount(); seat++) {
+			Player player = game.getPlayer(seat);
+			if (player != this && player.getBankPoints() > opponentBank)
+				opponentBank = player.getBankPoints();
+		}
+
+		return opponentBank;
+	}
+
+	/**
+	 * Returns the policy, mapping the policy file on the first call. The policy must be solved for the goal of the
+	 * game.
+	 *
+	 * @return The policy.
+	 */
+	private MappedPolicy getPolicy()
+	{
+		if (policy == null) {
+			try {
+				policy = MappedPolicy.open(file, Game.WINNING_POINTS);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return policy;
+	}
+}
@@ -0,0 +1,29 @@
+package tvkb.pig;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of randomness for dice.
+ */
+@FunctionalInterface
+public interface RandomSource
+{
+
+	/**
+	 * Returns a random int between 0 (inclusive) and the provided bound (exclusive).
+	 *
+	 * @param bound The upper bound (exclusive), must be positive.
+	 * @return The random int between 0 (inclusive) and the provided bound (exclusive).
+	 */
+	int nextInt(int bound);
+
+	/**
+	 * Returns a source of randomness using the random generator of the calling thread.
+	 *
+	 * @return The source of randomness using the random generator of the calling thread.
+	 */
+	static RandomSource threadLocal()
+	{
+		return bound -> ThreadLocalRandom.current().nextInt(bound);
+	}
+}
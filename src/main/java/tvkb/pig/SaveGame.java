@@ -0,0 +1,237 @@
+package tvkb.pig;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Saves the state of a game into a few dozen bytes, and restores games from them. Only the state of the game is saved,
+ * not the players or event handlers: a save is restored into a game with the same players in the same seats, which
+ * is checked through a hash of their names.
+ * <p>
+ * A save starts with the magic byte and the version, followed by a byte holding the ordinal of the GameState in the
+ * lowest three bits and whether the state of the dice was saved in the fourth bit. Then follow the number of players,
+ * the seat of the respondent plus one and the hash of the names. Every player is saved as its turn points, bank
+ * points, current bet and last roll. Numbers are stored as zigzag variable-length integers, except the hash. The save
+ * ends with the eight bytes of the state of the dice followed by the outcome of their last roll, when the dice are
+ * restorable.
+ */
+public final class SaveGame
+{
+
+	/**
+	 * The magic byte at the start of every save.
+	 */
+	static final byte MAGIC = 0x50;
+
+	/**
+	 * The version of the format.
+	 */
+	static final byte VERSION = 2;
+
+	/**
+	 * Mask of the bits holding the ordinal of the GameState in the flags.
+	 */
+	private static final int STATE_MASK = 0x7;
+
+	/**
+	 * Bit set in the flags when the state of the dice was saved.
+	 */
+	private static final int DICE_STATE = 1 << 3;
+
+	/**
+	 * The maximum size of a save for a single player, without the fixed part.
+	 */
+	private static final int PLAYER_SIZE = 4 * 5;
+
+	/**
+	 * The maximum size of the fixed part of a save.
+	 */
+	private static final int FIXED_SIZE = 3 + 5 + 5 + 4 + 8 + 5;
+
+	/**
+	 * The states of the turn loop, indexed by ordinal.
+	 */
+	private static final GameState[] STATES = GameState.values();
+
+	/**
+	 * Games are saved through the static methods.
+	 */
+	private SaveGame()
+	{
+	}
+
+	/**
+	 * Returns the state of the provided game.
+	 *
+	 * @param game The game to save, must not be played by another thread.
+	 * @return The saved state.
+	 * @throws IllegalStateException When another thread is playing the game.
+	 */
+	public static byte[] save(@NotNull Game game)
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(maxSize(game.getPlayerCount()));
+		save(game, buffer);
+
+		byte[] bytes = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(bytes);
+
+		return bytes;
+	}
+
+	/**
+	 * Writes the state of the provided game into the provided buffer.
+	 *
+	 * @param game   The game to save, must not be played by another thread.
+	 * @param buffer The buffer to write to, must have at least maxSize() bytes remaining.
+	 * @throws IllegalStateException When another thread is playing the game.
+	 */
+	public static void save(@NotNull Game game, @NotNull ByteBuffer buffer)
+	{
+		GameSnapshot snapshot = game.snapshot();
+		int          players  = snapshot.getPlayerCount();
+
+		buffer.put(MAGIC);
+		buffer.put(VERSION);
+		buffer.put((byte) (snapshot.getState().ordinal() | (snapshot.hasDiceState() ? DICE_STATE : 0)));
+		putVarint(buffer, players);
+		putVarint(buffer, snapshot.getRespondent() + 1);
+		buffer.putInt(hashNames(game));
+
+		for (int seat = 0; seat < players; seat++) {
+			putVarint(buffer, snapshot.getTurnPoints(seat));
+			putVarint(buffer, snapshot.getBankPoints(seat));
+			putVarint(buffer, snapshot.getCurrentBet(seat));
+			putVarint(buffer, snapshot.getLastRoll(seat));
+		}
+
+		if (snapshot.hasDiceState()) {
+			buffer.putLong(snapshot.getDiceState());
+			putVarint(buffer, snapshot.getDiceOutcome());
+		}
+	}
+
+	/**
+	 * Restores the provided game from the provided saved state. The game does not resume playing, use Game.resume()
+	 * for that.
+	 *
+	 * @param game  The game to restore, must not be playing.
+	 * @param bytes The saved state.
+	 * @throws IllegalArgumentException      When the bytes are not a save of a game with the same players.
+	 * @throws UnsupportedOperationException When the save holds the state of the dice, and the dice of the game are not
+	 *                                       restorable. The game is left unchanged.
+	 */
+	public static void load(@NotNull Game game, @NotNull byte[] bytes)
+	{
+		load(game, ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Restores the provided game from the saved state in the provided buffer.
+	 *
+	 * @param game   The game to restore, must not be playing.
+	 * @param buffer The buffer to read from, positioned at the start of the save.
+	 * @throws IllegalArgumentException      When the buffer does not hold a save of a game with the same players.
+	 * @throws UnsupportedOperationException When the save holds the state of the dice, and the dice of the game are not
+	 *                                       restorable. The game is left unchanged.
+	 */
+	public static void load(@NotNull Game game, @NotNull ByteBuffer buffer)
+	{
+		try {
+			if (buffer.get() != MAGIC)
+				throw new IllegalArgumentException("Not a saved game.");
+			byte version = buffer.get();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported save version " + version + ".");
+
+			int flags      = buffer.get();
+			int players    = getVarint(buffer);
+			int respondent = getVarint(buffer) - 1;
+			if (players != game.getPlayerCount() || buffer.getInt() != hashNames(game))
+				throw new IllegalArgumentException("Save does not match the players in the game.");
+			if ((flags & STATE_MASK) >= STATES.length || respondent < -1 || respondent >= players)
+				throw new IllegalArgumentException("Save holds an unknown game state.");
+
+			GameSnapshot snapshot = new GameSnapshot(players);
+			snapshot.setState(STATES[flags & STATE_MASK]);
+			snapshot.setRespondent(respondent);
+			for (int seat = 0; seat < players; seat++)
+				snapshot.setPlayer(seat, getVarint(buffer), getVarint(buffer), getVarint(buffer), getVarint(buffer));
+
+			if ((flags & DICE_STATE) != 0)
+				snapshot.setDiceState(buffer.getLong(), getVarint(buffer));
+
+			game.restore(snapshot);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Save is truncated.");
+		}
+	}
+
+	/**
+	 * Returns the maximum size of a save of a game with the provided number of players.
+	 *
+	 * @param players The number of players.
+	 * @return The maximum size of a save.
+	 */
+	public static int maxSize(int players)
+	{
+		return FIXED_SIZE + players * PLAYER_SIZE;
+	}
+
+	/**
+	 * Returns a hash of the names of the players in the provided game, in seat order.
+	 *
+	 * @param game The game.
+	 * @return The hash of the names.
+	 */
+	private static int hashNames(Game game)
+	{
+		// FNV-1a, stable across runs unlike identity hashes.
+		int hash = 0x811C9DC5;
+		for (int seat = 0; seat < game.getPlayerCount(); seat++) {
+			for (byte b : game.getPlayer(seat).getName().getBytes(StandardCharsets.UTF_8))
+				hash = (hash ^ (b & 0xFF)) * 0x01000193;
+			hash = (hash ^ 0xFF) * 0x01000193;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Writes the provided number as a zigzag variable-length integer.
+	 *
+	 * @param buffer The buffer to write to.
+	 * @param value  The number.
+	 */
+	private static void putVarint(ByteBuffer buffer, int value)
+	{
+		int zigzag = (value << 1) ^ (value >> 31);
+		while ((zigzag & ~0x7F) != 0) {
+			buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+			zigzag >>>= 7;
+		}
+		buffer.put((byte) zigzag);
+	}
+
+	/**
+	 * Reads a zigzag variable-length integer.
+	 *
+	 * @param buffer The buffer to read from.
+	 * @return The number.
+	 */
+	private static int getVarint(ByteBuffer buffer)
+	{
+		int zigzag = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = buffer.get();
+			zigzag |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+
+		throw new IllegalArgumentException("Save holds a malformed number.");
+	}
+}
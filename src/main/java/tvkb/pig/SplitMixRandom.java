@@ -0,0 +1,158 @@
+package tvkb.pig;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seedable and splittable SplitMix64 random generator. The state of the generator is a single long, which can be read
+ * and restored. The increment of the state, the gamma, is fixed for the lifetime of an instance: seeded generators use
+ * the golden gamma, split generators get a gamma of their own. Instances are not thread safe, each thread should use
+ * its own instance, for example by splitting a shared generator.
+ */
+public final class SplitMixRandom implements RandomSource
+{
+
+	/**
+	 * The increment of the state, the odd integer closest to 2^64 divided by the golden ratio.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * Seeds the generators created without an explicit seed.
+	 */
+	private static final AtomicLong seeder = new AtomicLong(mix(System.nanoTime()));
+
+	/**
+	 * The state of the generator.
+	 */
+	private long state;
+
+	/**
+	 * The increment of the state, always odd.
+	 */
+	private final long gamma;
+
+	/**
+	 * Creates a new generator with a unique seed.
+	 */
+	public SplitMixRandom()
+	{
+		this(mix(seeder.getAndAdd(GOLDEN_GAMMA)));
+	}
+
+	/**
+	 * Creates a new generator with the provided seed.
+	 *
+	 * @param seed The seed of the generator.
+	 */
+	public SplitMixRandom(long seed)
+	{
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Creates a new generator with the provided seed and gamma.
+	 *
+	 * @param seed  The seed of the generator.
+	 * @param gamma The increment of the state, must be odd.
+	 */
+	private SplitMixRandom(long seed, long gamma)
+	{
+		this.state = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Returns the next random long.
+	 *
+	 * @return The next random long.
+	 */
+	public long nextLong()
+	{
+		return mix(state += gamma);
+	}
+
+	/**
+	 * Returns a random int between 0 (inclusive) and the provided bound (exclusive).
+	 *
+	 * @param bound The upper bound (exclusive), must be positive.
+	 * @return The random int between 0 (inclusive) and the provided bound (exclusive).
+	 */
+	@Override public int nextInt(int bound)
+	{
+		if (bound <= 0)
+			throw new IllegalArgumentException("Bound must be positive.");
+
+		// Reject the values of the last incomplete multiple of the bound, so every result is equally likely.
+		int mask   = bound - 1;
+		int value  = (int) (nextLong() >>> 33);
+		int result = value % bound;
+		while (value - result + mask < 0) {
+			value = (int) (nextLong() >>> 33);
+			result = value % bound;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns a new generator seeded from this generator. The new generator also gets a gamma derived from this
+	 * generator, so its stream walks another sequence of states instead of an offset into the sequence of this
+	 * generator.
+	 *
+	 * @return The new generator.
+	 */
+	public SplitMixRandom split()
+	{
+		long seed = nextLong();
+
+		return new SplitMixRandom(seed, mixGamma(state += gamma));
+	}
+
+	/**
+	 * Returns the state of the generator.
+	 *
+	 * @return The state of the generator.
+	 */
+	public long getState()
+	{
+		return state;
+	}
+
+	/**
+	 * Restores the state of the generator.
+	 *
+	 * @param state The state to restore.
+	 */
+	public void setState(long state)
+	{
+		this.state = state;
+	}
+
+	/**
+	 * Scrambles the bits of the provided value.
+	 *
+	 * @param value The value to scramble.
+	 * @return The scrambled value.
+	 */
+	public static long mix(long value)
+	{
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+	/**
+	 * Derives a gamma from the provided value, as SplittableRandom does. The gamma is odd, and gammas with too few bit
+	 * transitions, which produce poorly mixed states, are flipped.
+	 *
+	 * @param value The value to derive the gamma from.
+	 * @return The gamma.
+	 */
+	private static long mixGamma(long value)
+	{
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		value = (value ^ (value >>> 33)) | 1L;
+		return Long.bitCount(value ^ (value >>> 1)) < 24 ? value ^ 0xaaaaaaaaaaaaaaaaL : value;
+	}
+}
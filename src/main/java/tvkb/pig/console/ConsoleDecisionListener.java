@@ -37,6 +37,11 @@ public class ConsoleDecisionListener implements Runnable
 	 */
 	@NotNull private Game game;
 
+	/**
+	 * The number of the decision request to respond to.
+	 */
+	private long request;
+
 	/**
 	 * Creates a new console decision thread.
 	 *
@@ -44,13 +49,15 @@ public class ConsoleDecisionListener implements Runnable
 	 * @param player  The player making the decision.
 	 * @param output  The print writer to use when outputting to the console.
 	 * @param game    The current game instance.
+	 * @param request The number of the decision request to respond to.
 	 */
-	ConsoleDecisionListener(@NotNull Scanner scanner, @NotNull PrintWriter output, @NotNull Player player, @NotNull Game game)
+	ConsoleDecisionListener(@NotNull Scanner scanner, @NotNull PrintWriter output, @NotNull Player player, @NotNull Game game, long request)
 	{
 		this.scanner = scanner;
 		this.output = output;
 		this.player = player;
 		this.game = game;
+		this.request = request;
 	}
 
 	/**
@@ -73,12 +80,12 @@ public class ConsoleDecisionListener implements Runnable
 			GameDecision decision = GameDecision.valueOf(input);
 
 			if (decision == GameDecision.CONTINUE) {
-				this.game.respondContinue(this.player);
+				this.game.respondContinue(this.player, this.request);
 				return;
 			}
 
 			if (decision == GameDecision.SAVE) {
-				this.game.respondSave(player);
+				this.game.respondSave(player, this.request);
 				return;
 			}
 
@@ -103,7 +110,7 @@ public class ConsoleDecisionListener implements Runnable
 		try {
 			output.println("How much do you want to bet?");
 			int amount = scanner.nextInt();
-			this.game.respondBet(this.player, amount);
+			this.game.respondBet(this.player, amount, this.request);
 		} catch (NotEnoughPointsException e) {
 			output.println("You do not have enough points.");
 			promptBetAmount();
@@ -186,7 +186,7 @@ public class ConsoleGameInterface implements GameEventHandler
 		output.println("    save");
 		output.println("    bet");
 
-		decisionThread = new Thread(new ConsoleDecisionListener(input, output, player, game));
+		decisionThread = new Thread(new ConsoleDecisionListener(input, output, player, game, game.getDecisionRequest()));
 		decisionThread.start();
 	}
 
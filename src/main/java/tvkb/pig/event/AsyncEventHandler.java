@@ -0,0 +1,462 @@
+package tvkb.pig.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.*;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event handler publishing the events into a preallocated ring buffer, from which a dedicated thread passes them on to
+ * the wrapped handler. The game loop only waits for the handler when the ring buffer is full and the backpressure is
+ * BLOCK.
+ * <p>
+ * The wrapped handler receives the live Game and Player instances, so a handler lagging behind the game observes their
+ * state at the time the event is consumed rather than the time it was published.
+ */
+public class AsyncEventHandler implements GameEventHandler, AutoCloseable
+{
+
+	/**
+	 * The handler to pass the events on to.
+	 */
+	@NotNull private GameEventHandler handler;
+
+	/**
+	 * How the threads wait for the ring buffer to change.
+	 */
+	@NotNull private WaitStrategy waitStrategy;
+
+	/**
+	 * What to do with new events when the ring buffer is full.
+	 */
+	@NotNull private Backpressure backpressure;
+
+	/**
+	 * Mask turning a sequence into an index in the ring buffer.
+	 */
+	private int mask;
+
+	/**
+	 * The type of the event in each slot.
+	 */
+	@NotNull private GameEvent[] types;
+
+	/**
+	 * The game of the event in each slot.
+	 */
+	@NotNull private Game[] games;
+
+	/**
+	 * The player of the event in each slot.
+	 */
+	@NotNull private Player[] players;
+
+	/**
+	 * The decision of the event in each slot.
+	 */
+	@NotNull private GameDecision[] decisions;
+
+	/**
+	 * The error message of the event in each slot.
+	 */
+	@NotNull private String[] messages;
+
+	/**
+	 * The sequence published into each slot, so the consumer knows when a claimed slot has been written.
+	 */
+	@NotNull private AtomicLongArray published;
+
+	/**
+	 * The last sequence claimed by a publisher.
+	 */
+	@NotNull private AtomicLong claimed = new AtomicLong(-1);
+
+	/**
+	 * The last sequence passed on to the handler.
+	 */
+	@NotNull private AtomicLong consumed = new AtomicLong(-1);
+
+	/**
+	 * The number of events dropped because the ring buffer was full, or because the handler was closed.
+	 */
+	@NotNull private AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * The number of events the handler threw an exception for.
+	 */
+	@NotNull private AtomicLong failed = new AtomicLong();
+
+	/**
+	 * The first exception thrown by the handler, null when it never threw.
+	 */
+	@Nullable private volatile RuntimeException failure;
+
+	/**
+	 * Whether or not the consumer keeps waiting for new events.
+	 */
+	@NotNull private AtomicBoolean running = new AtomicBoolean(true);
+
+	/**
+	 * The thread passing the events on to the handler.
+	 */
+	@NotNull private Thread consumer;
+
+	/**
+	 * Creates a new asynchronous event handler that blocks when full.
+	 *
+	 * @param handler  The handler to pass the events on to.
+	 * @param capacity The capacity of the ring buffer, rounded up to a power of two.
+	 */
+	public AsyncEventHandler(@NotNull GameEventHandler handler, int capacity)
+	{
+		this(handler, capacity, WaitStrategy.PARK, Backpressure.BLOCK);
+	}
+
+	/**
+	 * Creates a new asynchronous event handler.
+	 *
+	 * @param handler      The handler to pass the events on to.
+	 * @param capacity     The capacity of the ring buffer, rounded up to a power of two.
+	 * @param waitStrategy How the threads wait for the ring buffer to change.
+	 * @param backpressure What to do with new events when the ring buffer is full.
+	 */
+	public AsyncEventHandler(@NotNull GameEventHandler handler, int capacity, @NotNull WaitStrategy waitStrategy, @NotNull Backpressure backpressure)
+	{
+		if (capacity < 1 || capacity > 1 << 30)
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity)
+			size <<= 1;
+
+		this.handler = handler;
+		this.waitStrategy = waitStrategy;
+		this.backpressure = backpressure;
+		this.mask = size - 1;
+		this.types = new GameEvent[size];
+		this.games = new Game[size];
+		this.players = new Player[size];
+		this.decisions = new GameDecision[size];
+		this.messages = new String[size];
+		this.published = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++)
+			published.set(i, -1);
+
+		this.consumer = new Thread(this::consume, "async-event-handler");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+	}
+
+	/**
+	 * Publishes an event into the ring buffer. Events published after close() are dropped, since nothing consumes them.
+	 *
+	 * @param type     The type of the event.
+	 * @param game     The game of the event.
+	 * @param player   The player of the event.
+	 * @param decision The decision of the event.
+	 * @param message  The error message of the event.
+	 */
+	private void publish(GameEvent type, Game game, Player player, GameDecision decision, String message)
+	{
+		long sequence = claim();
+		if (sequence < 0) {
+			dropped.incrementAndGet();
+			return;
+		}
+
+		int index = (int) sequence & mask;
+		types[index] = type;
+		games[index] = game;
+		players[index] = player;
+		decisions[index] = decision;
+		messages[index] = message;
+		published.lazySet(index, sequence);
+	}
+
+	/**
+	 * Claims the next sequence, waiting for or giving up on a full ring buffer depending on the backpressure. A
+	 * publisher waiting for a full ring buffer gives up once the handler is closed, instead of waiting forever.
+	 *
+	 * @return The claimed sequence, or -1 when the event must be dropped.
+	 */
+	private long claim()
+	{
+		while (true) {
+			if (!running.get())
+				return -1;
+
+			long current = claimed.get();
+			long next    = current + 1;
+
+			if (next - consumed.get() > mask + 1) {
+				if (backpressure == Backpressure.DROP)
+					return -1;
+				waitStrategy.idle();
+				continue;
+			}
+
+			if (claimed.compareAndSet(current, next))
+				return next;
+		}
+	}
+
+	/**
+	 * Passes the published events on to the handler until closed and drained.
+	 */
+	private void consume()
+	{
+		long next = 0;
+
+		while (running.get() || next <= claimed.get()) {
+			int index = (int) next & mask;
+			if (published.get(index) != next) {
+				waitStrategy.idle();
+				continue;
+			}
+
+			try {
+				dispatch(types[index], games[index], players[index], decisions[index], messages[index]);
+			} catch (RuntimeException e) {
+				// A failing event must not stop the events after it, the failure is counted and kept instead.
+				if (failed.getAndIncrement() == 0)
+					failure = e;
+			}
+
+			games[index] = null;
+			players[index] = null;
+			messages[index] = null;
+			consumed.lazySet(next++);
+		}
+	}
+
+	/**
+	 * Passes a single event on to the handler.
+	 *
+	 * @param type     The type of the event.
+	 * @param game     The game of the event.
+	 * @param player   The player of the event.
+	 * @param decision The decision of the event.
+	 * @param message  The error message of the event.
+	 */
+	private void dispatch(GameEvent type, Game game, Player player, GameDecision decision, String message)
+	{
+		switch (type) {
+			case GAME_START:
+				handler.onGameStart(game);
+				break;
+			case GAME_END:
+				handler.onGameEnd(game);
+				break;
+			case ROUND_START:
+				handler.onRoundStart(game);
+				break;
+			case ROUND_END:
+				handler.onRoundEnd(game);
+				break;
+			case TURN_START:
+				handler.onTurnStart(game, player);
+				break;
+			case TURN_END:
+				handler.onTurnEnd(game, player);
+				break;
+			case DECISION_REQUEST:
+				handler.onDecisionRequest(game, player);
+				break;
+			case DECISION_RESPONSE:
+				handler.onDecisionResponse(game, player, decision);
+				break;
+			case HARD_RESET:
+				handler.onHardReset(game, player);
+				break;
+			case SOFT_RESET:
+				handler.onSoftReset(game, player);
+				break;
+			case ERROR:
+				handler.onError(message);
+				break;
+		}
+	}
+
+	/**
+	 * Returns the types of events the wrapped handler wants to receive, so other events never enter the ring buffer.
+	 *
+	 * @return The types of events the wrapped handler wants to receive.
+	 */
+	@Override public Set<GameEvent> getSubscriptions()
+	{
+		return handler.getSubscriptions();
+	}
+
+	/**
+	 * Returns the number of events dropped because the ring buffer was full, or because the handler was closed.
+	 *
+	 * @return The number of events dropped.
+	 */
+	public long getDropped()
+	{
+		return dropped.get();
+	}
+
+	/**
+	 * Returns the number of events the handler threw an exception for.
+	 *
+	 * @return The number of events the handler threw an exception for.
+	 */
+	public long getFailed()
+	{
+		return failed.get();
+	}
+
+	/**
+	 * Returns the first exception thrown by the handler.
+	 *
+	 * @return The first exception thrown by the handler, null when it never threw.
+	 */
+	@Nullable public RuntimeException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * Passes the remaining events on to the handler and stops the consumer thread. Waits for the consumer thread even
+	 * when interrupted, and restores the interrupt status of the calling thread afterwards.
+	 */
+	@Override public void close()
+	{
+		running.set(false);
+
+		boolean interrupted = false;
+		while (true) {
+			try {
+				consumer.join();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Called when a new game starts.
+	 *
+	 * @param game The new game instance.
+	 */
+	@Override public void onGameStart(Game game)
+	{
+		publish(GameEvent.GAME_START, game, null, null, null);
+	}
+
+	/**
+	 * Called when the game ends.
+	 *
+	 * @param game The game instance that just ended.
+	 */
+	@Override public void onGameEnd(Game game)
+	{
+		publish(GameEvent.GAME_END, game, null, null, null);
+	}
+
+	/**
+	 * Called when a new round starts.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundStart(Game game)
+	{
+		publish(GameEvent.ROUND_START, game, null, null, null);
+	}
+
+	/**
+	 * Called when a new round ends.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundEnd(Game game)
+	{
+		publish(GameEvent.ROUND_END, game, null, null, null);
+	}
+
+	/**
+	 * Called when a new turn begins.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn it is.
+	 */
+	@Override public void onTurnStart(Game game, Player player)
+	{
+		publish(GameEvent.TURN_START, game, player, null, null);
+	}
+
+	/**
+	 * Called when a player ends their turn.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn ended.
+	 */
+	@Override public void onTurnEnd(Game game, Player player)
+	{
+		publish(GameEvent.TURN_END, game, player, null, null);
+	}
+
+	/**
+	 * Called when a player must make a game decision.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player to make the decision.
+	 */
+	@Override public void onDecisionRequest(Game game, Player player)
+	{
+		publish(GameEvent.DECISION_REQUEST, game, player, null, null);
+	}
+
+	/**
+	 * Called when the game has received a decision.
+	 *
+	 * @param game     The current game instance.
+	 * @param player   The player whose decision was received.
+	 * @param decision The decision that was made by the player.
+	 */
+	@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+	{
+		publish(GameEvent.DECISION_RESPONSE, game, player, decision, null);
+	}
+
+	/**
+	 * Called when a player must reset their turn and bank total.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their bank.
+	 */
+	@Override public void onHardReset(Game game, Player player)
+	{
+		publish(GameEvent.HARD_RESET, game, player, null, null);
+	}
+
+	/**
+	 * Called when a player must reset their turn total.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their turn total.
+	 */
+	@Override public void onSoftReset(Game game, Player player)
+	{
+		publish(GameEvent.SOFT_RESET, game, player, null, null);
+	}
+
+	/**
+	 * Called when the game encounters an error.
+	 *
+	 * @param message The message to display.
+	 */
+	@Override public void onError(String message)
+	{
+		publish(GameEvent.ERROR, null, null, null, message);
+	}
+}
@@ -0,0 +1,18 @@
+package tvkb.pig.event;
+
+/**
+ * What an AsyncEventHandler does with a new event when its ring buffer is full.
+ */
+public enum Backpressure
+{
+
+	/**
+	 * The engine waits until the handler consumed an event.
+	 */
+	BLOCK,
+
+	/**
+	 * The event is dropped, so the engine never waits for the handler.
+	 */
+	DROP,
+}
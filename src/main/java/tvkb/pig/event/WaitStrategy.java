@@ -0,0 +1,49 @@
+package tvkb.pig.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits for the ring buffer of an AsyncEventHandler to change.
+ */
+public enum WaitStrategy
+{
+
+	/**
+	 * Spins without giving up the processor. Lowest latency, but keeps a core busy.
+	 */
+	BUSY_SPIN {
+		@Override void idle()
+		{
+		}
+	},
+
+	/**
+	 * Yields the processor to other threads between checks.
+	 */
+	YIELD {
+		@Override void idle()
+		{
+			Thread.yield();
+		}
+	},
+
+	/**
+	 * Parks the thread for a short while between checks. Highest latency, but uses no processor while idle.
+	 */
+	PARK {
+		@Override void idle()
+		{
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+	};
+
+	/**
+	 * The time to park between checks, in nanoseconds.
+	 */
+	private static final long PARK_NANOS = 50_000;
+
+	/**
+	 * Waits once before the next check.
+	 */
+	abstract void idle();
+}
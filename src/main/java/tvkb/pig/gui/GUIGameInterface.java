@@ -122,9 +122,11 @@ public class GUIGameInterface extends GameGUI implements GameEventHandler
 	 */
 	private void addDecisionButtonListeners(final Game game, final Player player)
 	{
-		this.continueButtonListener = e -> game.respondContinue(player);
-		this.saveButtonListener = e -> game.respondSave(player);
-		this.betButtonListener = e -> handleBet(game, player);
+		final long request = game.getDecisionRequest();
+
+		this.continueButtonListener = e -> game.respondContinue(player, request);
+		this.saveButtonListener = e -> game.respondSave(player, request);
+		this.betButtonListener = e -> handleBet(game, player, request);
 
 		continueButton.addActionListener(continueButtonListener);
 		saveButton.addActionListener(saveButtonListener);
@@ -229,6 +231,16 @@ public class GUIGameInterface extends GameGUI implements GameEventHandler
 		}
 	}
 
+	/**
+	 * Returns the types of events the GUI displays. The GUI ignores the start and end of rounds.
+	 *
+	 * @return The types of events the GUI displays.
+	 */
+	@Override public Set<GameEvent> getSubscriptions()
+	{
+		return EnumSet.complementOf(EnumSet.of(GameEvent.ROUND_START, GameEvent.ROUND_END));
+	}
+
 	/**
 	 * Called when a new game starts.
 	 *
@@ -356,12 +368,12 @@ public class GUIGameInterface extends GameGUI implements GameEventHandler
 		}
 	}
 
-	private void handleBet(Game game, Player player)
+	private void handleBet(Game game, Player player, long request)
 	{
 		try {
 			int value = betSlider.getValue();
 			System.out.println("handle bet" + value);
-			game.respondBet(player, value);
+			game.respondBet(player, value, request);
 		} catch (Exception e) {
 			//TODO
 		}
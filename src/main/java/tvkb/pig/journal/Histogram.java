@@ -0,0 +1,114 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counts non-negative values in a fixed number of bins, one per value, with the last bin counting every larger value.
+ * The memory used does not depend on the number of values counted.
+ */
+public final class Histogram
+{
+
+	/**
+	 * The number of values counted in each bin.
+	 */
+	@NotNull private final long[] counts;
+
+	/**
+	 * The number of values counted.
+	 */
+	private long count = 0;
+
+	/**
+	 * The sum of the values counted, including the values in the last bin.
+	 */
+	private long sum = 0;
+
+	/**
+	 * Creates a new empty histogram.
+	 *
+	 * @param bins The number of bins, values of bins - 1 and up share the last bin.
+	 */
+	public Histogram(int bins)
+	{
+		this.counts = new long[bins];
+	}
+
+	/**
+	 * Counts the provided value.
+	 *
+	 * @param value The value, negative values are counted as zero.
+	 */
+	public void add(int value)
+	{
+		counts[Math.max(0, Math.min(value, counts.length - 1))]++;
+		count++;
+		sum += value;
+	}
+
+	/**
+	 * Adds the counts of the provided histogram to this histogram.
+	 *
+	 * @param other The histogram to add, must have the same number of bins.
+	 * @return This histogram.
+	 */
+	public Histogram merge(@NotNull Histogram other)
+	{
+		for (int bin = 0; bin < counts.length; bin++)
+			counts[bin] += other.counts[bin];
+		count += other.count;
+		sum += other.sum;
+
+		return this;
+	}
+
+	/**
+	 * Returns the number of values counted in the provided bin.
+	 *
+	 * @param bin The bin.
+	 * @return The number of values counted in the bin.
+	 */
+	public long getCount(int bin)
+	{
+		return counts[bin];
+	}
+
+	/**
+	 * Returns the number of values counted.
+	 *
+	 * @return The number of values counted.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the values counted.
+	 *
+	 * @return The mean of the values counted, zero when none were counted.
+	 */
+	public double getMean()
+	{
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns the smallest value that at least the provided fraction of the values is less than or equal to.
+	 *
+	 * @param fraction The fraction, between zero and one.
+	 * @return The value, the last bin when the fraction falls into it.
+	 */
+	public int getPercentile(double fraction)
+	{
+		long target     = (long) Math.ceil(fraction * count);
+		long cumulative = 0;
+		for (int bin = 0; bin < counts.length; bin++) {
+			cumulative += counts[bin];
+			if (cumulative >= target && cumulative > 0)
+				return bin;
+		}
+
+		return counts.length - 1;
+	}
+}
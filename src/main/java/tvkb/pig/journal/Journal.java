@@ -0,0 +1,331 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.GameDecision;
+import tvkb.pig.GameEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A game journal mapped into memory. Records are read in place from the mapped file, nothing is copied. A record
+ * written partially, by a writer that did not close, is ignored. Journals must be smaller than 2 GB.
+ */
+public final class Journal
+{
+
+	/**
+	 * The types of events, indexed by ordinal.
+	 */
+	private static final GameEvent[] EVENTS = GameEvent.values();
+
+	/**
+	 * The decisions, indexed by ordinal.
+	 */
+	private static final GameDecision[] DECISIONS = GameDecision.values();
+
+	/**
+	 * The mapped journal.
+	 */
+	@NotNull private final MappedByteBuffer buffer;
+
+	/**
+	 * The names of the players, in seat order.
+	 */
+	@NotNull private final String[] names;
+
+	/**
+	 * The types of the players, in seat order.
+	 */
+	@NotNull private final String[] types;
+
+	/**
+	 * The offset of the first record.
+	 */
+	private final int headerSize;
+
+	/**
+	 * The number of complete records.
+	 */
+	private final int recordCount;
+
+	/**
+	 * The index of the GAME_START record of each game.
+	 */
+	@NotNull private final int[] gameStarts;
+
+	/**
+	 * Maps the provided journal.
+	 *
+	 * @param file The journal.
+	 * @throws IOException When the file could not be mapped or is not a journal.
+	 */
+	public Journal(@NotNull Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(String.format("%s is too large to be mapped.", file));
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < 8 || buffer.getInt(0) != JournalFile.MAGIC)
+			throw new IOException(String.format("%s is not a game journal.", file));
+		if (buffer.getShort(4) != JournalFile.VERSION)
+			throw new IOException(String.format("%s has unsupported version %d.", file, buffer.getShort(4)));
+
+		int players = buffer.getShort(6);
+		this.names = new String[players];
+		this.types = new String[players];
+
+		ByteBuffer header = buffer.duplicate();
+		header.position(8);
+		try {
+			for (int seat = 0; seat < players; seat++) {
+				names[seat] = getString(header);
+				types[seat] = getString(header);
+			}
+		} catch (RuntimeException e) {
+			throw new IOException(String.format("%s is truncated.", file));
+		}
+
+		this.headerSize = JournalFile.align(header.position());
+		this.recordCount = Math.max(0, buffer.limit() - headerSize) / JournalFile.RECORD_SIZE;
+		this.gameStarts = findGameStarts();
+	}
+
+	/**
+	 * Reads a length and the UTF-8 bytes of a string.
+	 *
+	 * @param header The header, positioned at the length.
+	 * @return The string.
+	 */
+	private static String getString(ByteBuffer header)
+	{
+		byte[] bytes = new byte[header.getShort()];
+		header.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the index of the GAME_START record of each game.
+	 *
+	 * @return The index of the GAME_START record of each game.
+	 */
+	private int[] findGameStarts()
+	{
+		int[] starts = new int[16];
+		int   count  = 0;
+		for (int record = 0; record < recordCount; record++) {
+			if (buffer.get(offset(record)) != GameEvent.GAME_START.ordinal())
+				continue;
+			if (count == starts.length)
+				starts = Arrays.copyOf(starts, count * 2);
+			starts[count++] = record;
+		}
+
+		return Arrays.copyOf(starts, count);
+	}
+
+	/**
+	 * Returns the offset of the provided record in the file.
+	 *
+	 * @param record The index of the record.
+	 * @return The offset of the record.
+	 */
+	private int offset(int record)
+	{
+		return headerSize + record * JournalFile.RECORD_SIZE;
+	}
+
+	/**
+	 * Returns the index of the first record at or after the provided record that holds a roll of the dice.
+	 *
+	 * @param from The index of the record to start at.
+	 * @return The index of the record, -1 if there is none.
+	 */
+	public int nextRoll(int from)
+	{
+		for (int record = from; record < recordCount; record++)
+			if (buffer.get(offset(record) + JournalFile.FIRST_FACE) != 0)
+				return record;
+
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first record at or after the provided record that holds the provided type of event.
+	 *
+	 * @param event The type of event.
+	 * @param from  The index of the record to start at.
+	 * @return The index of the record, -1 if there is none.
+	 */
+	public int next(@NotNull GameEvent event, int from)
+	{
+		for (int record = from; record < recordCount; record++)
+			if (buffer.get(offset(record)) == event.ordinal())
+				return record;
+
+		return -1;
+	}
+
+	/**
+	 * Returns the type of event of the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The type of event.
+	 */
+	public GameEvent getEvent(int record)
+	{
+		return EVENTS[buffer.get(offset(record))];
+	}
+
+	/**
+	 * Returns the seat of the player the provided record is about.
+	 *
+	 * @param record The index of the record.
+	 * @return The seat of the player, -1 when the record is about the whole game.
+	 */
+	public int getSeat(int record)
+	{
+		return buffer.getInt(offset(record) + JournalFile.SEAT);
+	}
+
+	/**
+	 * Returns the first face of the dice in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The first face of the dice, zero when the record is not a roll.
+	 */
+	public int getFirstFace(int record)
+	{
+		return buffer.get(offset(record) + JournalFile.FIRST_FACE);
+	}
+
+	/**
+	 * Returns the second face of the dice in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The second face of the dice, zero when the record is not a roll.
+	 */
+	public int getSecondFace(int record)
+	{
+		return buffer.get(offset(record) + JournalFile.SECOND_FACE);
+	}
+
+	/**
+	 * Returns the decision in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The decision, null when the record is not a decision response.
+	 */
+	@Nullable public GameDecision getDecision(int record)
+	{
+		int decision = buffer.get(offset(record) + JournalFile.DECISION);
+
+		return decision < 0 ? null : DECISIONS[decision];
+	}
+
+	/**
+	 * Returns the turn points of the player in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The turn points of the player.
+	 */
+	public int getTurnPoints(int record)
+	{
+		return buffer.getInt(offset(record) + JournalFile.TURN_POINTS);
+	}
+
+	/**
+	 * Returns the bank points of the player in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The bank points of the player.
+	 */
+	public int getBankPoints(int record)
+	{
+		return buffer.getInt(offset(record) + JournalFile.BANK_POINTS);
+	}
+
+	/**
+	 * Returns the current bet of the player in the provided record.
+	 *
+	 * @param record The index of the record.
+	 * @return The current bet of the player.
+	 */
+	public int getCurrentBet(int record)
+	{
+		return buffer.getInt(offset(record) + JournalFile.CURRENT_BET);
+	}
+
+	/**
+	 * Returns the number of complete records.
+	 *
+	 * @return The number of complete records.
+	 */
+	public int getRecordCount()
+	{
+		return recordCount;
+	}
+
+	/**
+	 * Returns the number of games in the journal, including a game that did not end.
+	 *
+	 * @return The number of games in the journal.
+	 */
+	public int getGameCount()
+	{
+		return gameStarts.length;
+	}
+
+	/**
+	 * Returns the index of the GAME_START record of the provided game.
+	 *
+	 * @param game The index of the game.
+	 * @return The index of the GAME_START record.
+	 */
+	public int getGameStart(int game)
+	{
+		return gameStarts[game];
+	}
+
+	/**
+	 * Returns the number of players in the recorded games.
+	 *
+	 * @return The number of players in the recorded games.
+	 */
+	public int getPlayerCount()
+	{
+		return names.length;
+	}
+
+	/**
+	 * Returns the name of the player in the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The name of the player.
+	 */
+	public String getName(int seat)
+	{
+		return names[seat];
+	}
+
+	/**
+	 * Returns the type of the player in the provided seat, the simple name of its class.
+	 *
+	 * @param seat The seat.
+	 * @return The type of the player.
+	 */
+	public String getType(int seat)
+	{
+		return types[seat];
+	}
+}
@@ -0,0 +1,73 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task scanning a range of journals. Ranges of more than one journal are split in two. Every leaf builds its
+ * own statistics, which are merged on the way back up, so no statistics are shared between threads. A journal that
+ * cannot be read is counted as skipped, instead of failing the whole scan.
+ */
+class JournalAnalysisTask extends RecursiveTask<JournalStatistics>
+{
+
+	/**
+	 * The journals to scan.
+	 */
+	@NotNull private List<Path> files;
+
+	/**
+	 * The index of the first journal to scan.
+	 */
+	private int first;
+
+	/**
+	 * The number of journals to scan.
+	 */
+	private int count;
+
+	/**
+	 * Creates a new analysis task.
+	 *
+	 * @param files The journals to scan.
+	 * @param first The index of the first journal to scan.
+	 * @param count The number of journals to scan.
+	 */
+	JournalAnalysisTask(@NotNull List<Path> files, int first, int count)
+	{
+		this.files = files;
+		this.first = first;
+		this.count = count;
+	}
+
+	/**
+	 * Scans the journals, splitting the range when it holds more than one journal.
+	 *
+	 * @return The combined statistics of the journals.
+	 */
+	@Override protected JournalStatistics compute()
+	{
+		if (count == 0)
+			return new JournalStatistics();
+
+		if (count == 1) {
+			try {
+				return new JournalStatistics().accept(new Journal(files.get(first)));
+			} catch (IOException | RuntimeException e) {
+				// Corrupt records surface as runtime exceptions, the partial statistics of the journal are dropped.
+				return new JournalStatistics().skip();
+			}
+		}
+
+		int                 half  = count / 2;
+		JournalAnalysisTask left  = new JournalAnalysisTask(files, first, half);
+		JournalAnalysisTask right = new JournalAnalysisTask(files, first + half, count - half);
+		left.fork();
+
+		return right.compute().merge(left.join());
+	}
+}
@@ -0,0 +1,84 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes statistics over every journal in a set of directories, scanning the journals in parallel on a fork/join
+ * pool.
+ */
+public class JournalAnalytics
+{
+
+	/**
+	 * The pool scanning the journals.
+	 */
+	@NotNull private ForkJoinPool pool;
+
+	/**
+	 * Creates new journal analytics using the common pool.
+	 */
+	public JournalAnalytics()
+	{
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates new journal analytics.
+	 *
+	 * @param pool The pool scanning the journals.
+	 */
+	public JournalAnalytics(@NotNull ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Prints the statistics of the journals in the provided directories.
+	 *
+	 * @param args The directories to scan, recursively.
+	 * @throws IOException When a directory could not be listed.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		List<Path> directories = new ArrayList<>();
+		for (String arg : args)
+			directories.add(Paths.get(arg));
+
+		long              start      = System.nanoTime();
+		JournalStatistics statistics = new JournalAnalytics().analyze(directories);
+		double            seconds    = (System.nanoTime() - start) / 1e9;
+
+		System.out.print(statistics);
+		System.out.println(String.format("Scanned in %.2f s.", seconds));
+	}
+
+	/**
+	 * Returns the statistics of the journals in the provided directories. Journals that cannot be read are skipped,
+	 * see JournalStatistics.getSkipped().
+	 *
+	 * @param directories The directories to scan, recursively.
+	 * @return The statistics of the journals.
+	 * @throws IOException When a directory could not be listed.
+	 */
+	public JournalStatistics analyze(@NotNull List<Path> directories) throws IOException
+	{
+		List<Path> files = new ArrayList<>();
+		for (Path directory : directories) {
+			try (Stream<Path> paths = Files.walk(directory)) {
+				files.addAll(paths.filter(path -> path.toString().endsWith(JournalFile.EXTENSION) && Files.isRegularFile(path)).collect(Collectors.toList()));
+			}
+		}
+
+		return pool.invoke(new JournalAnalysisTask(files, 0, files.size()));
+	}
+}
@@ -0,0 +1,178 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The layout of game journals.
+ * <p>
+ * A journal starts with a header: the magic number, the version, the number of players, and the name and type of each
+ * player in seat order. Names and types are stored as a length followed by UTF-8 bytes. The header is padded to a
+ * multiple of the record size and followed by the records.
+ * <p>
+ * Every record has the same size. A record holds the ordinal of the event, the ordinal of the decision for decision
+ * responses, the faces of the dice for rolls, the seat of the player the event is about (-1 for events about the whole
+ * game), and the turn points, bank points and current bet of the player at the time the event was sent.
+ */
+public final class JournalFile
+{
+
+	/**
+	 * The magic number at the start of every journal.
+	 */
+	static final int MAGIC = 0x5049474A;
+
+	/**
+	 * The version of the file format.
+	 */
+	static final short VERSION = 2;
+
+	/**
+	 * The file name extension of journals.
+	 */
+	public static final String EXTENSION = ".pigj";
+
+	/**
+	 * The maximum number of players in a journal. The number of players is stored as a short.
+	 */
+	public static final int MAX_PLAYERS = Short.MAX_VALUE;
+
+	/**
+	 * The size of every record.
+	 */
+	public static final int RECORD_SIZE = 20;
+
+	/**
+	 * Offset of the ordinal of the GameEvent in a record.
+	 */
+	static final int EVENT = 0;
+
+	/**
+	 * Offset of the ordinal of the GameDecision in a record, -1 when the event is not a decision response.
+	 */
+	static final int DECISION = 1;
+
+	/**
+	 * Offset of the first face of the dice in a record, zero when the event is not a roll.
+	 */
+	static final int FIRST_FACE = 2;
+
+	/**
+	 * Offset of the second face of the dice in a record, zero when the event is not a roll.
+	 */
+	static final int SECOND_FACE = 3;
+
+	/**
+	 * Offset of the seat in a record.
+	 */
+	static final int SEAT = 4;
+
+	/**
+	 * Offset of the turn points in a record.
+	 */
+	static final int TURN_POINTS = 8;
+
+	/**
+	 * Offset of the bank points in a record.
+	 */
+	static final int BANK_POINTS = 12;
+
+	/**
+	 * Offset of the current bet in a record.
+	 */
+	static final int CURRENT_BET = 16;
+
+	/**
+	 * Journals are written by JournalWriter.
+	 */
+	private JournalFile()
+	{
+	}
+
+	/**
+	 * Returns the size of the header for the provided players, including the padding.
+	 *
+	 * @param players The players in the game.
+	 * @return The size of the header.
+	 */
+	static int headerSize(@NotNull List<Player> players)
+	{
+		int size = 8;
+		for (Player player : players)
+			size += 4 + utf8(player.getName()).length + utf8(type(player)).length;
+
+		return align(size);
+	}
+
+	/**
+	 * Writes the header for the provided players into the provided buffer.
+	 *
+	 * @param buffer  The buffer to write to, must have room for the header.
+	 * @param players The players in the game.
+	 */
+	static void writeHeader(@NotNull ByteBuffer buffer, @NotNull List<Player> players)
+	{
+		int start = buffer.position();
+
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) players.size());
+		for (Player player : players) {
+			putString(buffer, player.getName());
+			putString(buffer, type(player));
+		}
+
+		while ((buffer.position() - start) % RECORD_SIZE != 0)
+			buffer.put((byte) 0);
+	}
+
+	/**
+	 * Returns the type of the provided player, as stored in the header.
+	 *
+	 * @param player The player.
+	 * @return The type of the provided player.
+	 */
+	static String type(@NotNull Player player)
+	{
+		return player.getClass().getSimpleName();
+	}
+
+	/**
+	 * Rounds the provided size up to a multiple of the record size.
+	 *
+	 * @param size The size.
+	 * @return The size, rounded up to a multiple of the record size.
+	 */
+	static int align(int size)
+	{
+		return (size + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE;
+	}
+
+	/**
+	 * Writes the length and UTF-8 bytes of the provided string.
+	 *
+	 * @param buffer The buffer to write to.
+	 * @param value  The string.
+	 */
+	private static void putString(ByteBuffer buffer, String value)
+	{
+		byte[] bytes = utf8(value);
+		buffer.putShort((short) bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Returns the UTF-8 bytes of the provided string.
+	 *
+	 * @param value The string.
+	 * @return The UTF-8 bytes of the provided string.
+	 */
+	private static byte[] utf8(String value)
+	{
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,266 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.GameSnapshot;
+import tvkb.pig.GameState;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A sparse seek index of a journal, mapped into memory. The index is written next to the journal by JournalWriter and
+ * holds an entry at the start of every game and at the start of every K-th round. An entry holds the index of the
+ * record the round starts at and a checkpoint of the game at that point, so a replay can jump to any round without
+ * replaying the rounds before the entry.
+ * <p>
+ * The index starts with a header: the magic number, the version, the number of players and the interval K, padded to
+ * sixteen bytes. The header is followed by the entries. Every entry holds the index of the game, the round, the index
+ * of the record, the seat of the respondent and the ordinal of the GameState, followed by the turn points, bank points,
+ * current bet and last roll of every player.
+ */
+public final class JournalIndex
+{
+
+	/**
+	 * The magic number at the start of every index.
+	 */
+	static final int MAGIC = 0x50494758;
+
+	/**
+	 * The version of the file format.
+	 */
+	static final short VERSION = 1;
+
+	/**
+	 * The size of the header.
+	 */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size of an entry, without the players.
+	 */
+	static final int ENTRY_HEADER_SIZE = 20;
+
+	/**
+	 * The size of the checkpoint of a single player in an entry.
+	 */
+	static final int PLAYER_SIZE = 16;
+
+	/**
+	 * The states of the turn loop, indexed by ordinal.
+	 */
+	private static final GameState[] STATES = GameState.values();
+
+	/**
+	 * The mapped index.
+	 */
+	@NotNull private final MappedByteBuffer buffer;
+
+	/**
+	 * The number of players in the indexed games.
+	 */
+	private final int players;
+
+	/**
+	 * The number of rounds between two entries.
+	 */
+	private final int interval;
+
+	/**
+	 * The size of every entry.
+	 */
+	private final int entrySize;
+
+	/**
+	 * The number of complete entries.
+	 */
+	private final int entryCount;
+
+	/**
+	 * The first entry of every game.
+	 */
+	@NotNull private final int[] gameEntries;
+
+	/**
+	 * Maps the provided index.
+	 *
+	 * @param file The index.
+	 * @throws IOException When the file could not be mapped or is not an index.
+	 */
+	public JournalIndex(@NotNull Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(String.format("%s is too large to be mapped.", file));
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IOException(String.format("%s is not a journal index.", file));
+		if (buffer.getShort(4) != VERSION)
+			throw new IOException(String.format("%s has unsupported version %d.", file, buffer.getShort(4)));
+
+		this.players = buffer.getShort(6);
+		this.interval = buffer.getInt(8);
+		this.entrySize = entrySize(players);
+		this.entryCount = (buffer.limit() - HEADER_SIZE) / entrySize;
+		this.gameEntries = findGameEntries();
+	}
+
+	/**
+	 * Returns the path of the index of the provided journal.
+	 *
+	 * @param journal The path of the journal.
+	 * @return The path of the index.
+	 */
+	public static Path pathOf(@NotNull Path journal)
+	{
+		return journal.resolveSibling(journal.getFileName() + ".idx");
+	}
+
+	/**
+	 * Returns the size of every entry for the provided number of players.
+	 *
+	 * @param players The number of players.
+	 * @return The size of every entry.
+	 */
+	static int entrySize(int players)
+	{
+		return ENTRY_HEADER_SIZE + players * PLAYER_SIZE;
+	}
+
+	/**
+	 * Returns the first entry of every game. Games are numbered consecutively from zero, and every game has an entry.
+	 *
+	 * @return The first entry of every game.
+	 */
+	private int[] findGameEntries()
+	{
+		int   games   = entryCount == 0 ? 0 : getGame(entryCount - 1) + 1;
+		int[] entries = new int[games];
+		Arrays.fill(entries, -1);
+		for (int entry = entryCount - 1; entry >= 0; entry--)
+			entries[getGame(entry)] = entry;
+
+		return entries;
+	}
+
+	/**
+	 * Returns the entry to start at to reach the provided round of the provided game: the last entry of the game at or
+	 * before the round.
+	 *
+	 * @param game  The index of the game.
+	 * @param round The round, zero being the first round of the game.
+	 * @return The entry.
+	 * @throws IllegalArgumentException When the game is not in the index.
+	 */
+	public int find(int game, int round)
+	{
+		if (game < 0 || game >= gameEntries.length || gameEntries[game] < 0)
+			throw new IllegalArgumentException("Game " + game + " is not in the index.");
+
+		int first = gameEntries[game];
+		int entry = first + Math.max(0, round) / interval;
+		int last  = game + 1 < gameEntries.length ? gameEntries[game + 1] - 1 : entryCount - 1;
+
+		return Math.min(entry, last);
+	}
+
+	/**
+	 * Fills the provided snapshot with the checkpoint of the provided entry. The state of the dice is not part of the
+	 * checkpoint, and is cleared.
+	 *
+	 * @param entry    The entry.
+	 * @param snapshot The snapshot to fill, must be sized for the number of players.
+	 */
+	public void checkpoint(int entry, @NotNull GameSnapshot snapshot)
+	{
+		int offset = offset(entry);
+		for (int seat = 0; seat < players; seat++) {
+			int player = offset + ENTRY_HEADER_SIZE + seat * PLAYER_SIZE;
+			snapshot.setPlayer(seat, buffer.getInt(player), buffer.getInt(player + 4), buffer.getInt(player + 8), buffer.getInt(player + 12));
+		}
+
+		snapshot.setRespondent(buffer.getInt(offset + 12));
+		snapshot.setState(STATES[buffer.getInt(offset + 16)]);
+		snapshot.clearDiceState();
+	}
+
+	/**
+	 * Returns the offset of the provided entry in the file.
+	 *
+	 * @param entry The entry.
+	 * @return The offset of the entry.
+	 */
+	private int offset(int entry)
+	{
+		return HEADER_SIZE + entry * entrySize;
+	}
+
+	/**
+	 * Returns the index of the game of the provided entry.
+	 *
+	 * @param entry The entry.
+	 * @return The index of the game.
+	 */
+	public int getGame(int entry)
+	{
+		return buffer.getInt(offset(entry));
+	}
+
+	/**
+	 * Returns the round of the provided entry.
+	 *
+	 * @param entry The entry.
+	 * @return The round, zero being the first round of the game.
+	 */
+	public int getRound(int entry)
+	{
+		return buffer.getInt(offset(entry) + 4);
+	}
+
+	/**
+	 * Returns the index of the record the round of the provided entry starts at.
+	 *
+	 * @param entry The entry.
+	 * @return The index of the GAME_START or ROUND_START record.
+	 */
+	public int getRecord(int entry)
+	{
+		return buffer.getInt(offset(entry) + 8);
+	}
+
+	/**
+	 * Returns the number of complete entries.
+	 *
+	 * @return The number of complete entries.
+	 */
+	public int getEntryCount()
+	{
+		return entryCount;
+	}
+
+	/**
+	 * Returns the number of players in the indexed games.
+	 *
+	 * @return The number of players in the indexed games.
+	 */
+	public int getPlayerCount()
+	{
+		return players;
+	}
+
+	/**
+	 * Returns the number of rounds between two entries.
+	 *
+	 * @return The number of rounds between two entries.
+	 */
+	public int getInterval()
+	{
+		return interval;
+	}
+}
@@ -0,0 +1,162 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Game;
+import tvkb.pig.GameSnapshot;
+import tvkb.pig.GameState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the entries of a JournalIndex while the journal is recorded. Entries are buffered and written whenever the
+ * journal writes its records, so the index never points past the records written to the journal.
+ */
+final class JournalIndexWriter
+{
+
+	/**
+	 * The channel of the index.
+	 */
+	@NotNull private final FileChannel channel;
+
+	/**
+	 * The number of rounds between two entries.
+	 */
+	private final int interval;
+
+	/**
+	 * The entries not written to the channel yet, null before the number of players is known.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * The buffer swapped in for the next entries, null while it is written or before the first swap.
+	 */
+	private ByteBuffer spare;
+
+	/**
+	 * The snapshot the checkpoints are taken into.
+	 */
+	private GameSnapshot snapshot;
+
+	/**
+	 * Creates a new index writer. Existing files are truncated.
+	 *
+	 * @param file     The file to write the index to.
+	 * @param interval The number of rounds between two entries.
+	 * @throws IOException When the file could not be opened.
+	 */
+	JournalIndexWriter(@NotNull Path file, int interval) throws IOException
+	{
+		if (interval < 1)
+			throw new IllegalArgumentException("Index interval must be at least one round.");
+
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.interval = interval;
+	}
+
+	/**
+	 * Adds an entry for the provided round when it is a multiple of the interval. Called when the round starts, so the
+	 * checkpoint is stored as the first player about to roll: respondent zero, in the ROLLING state.
+	 *
+	 * @param game   The current game instance.
+	 * @param index  The index of the game in the journal.
+	 * @param round  The round, zero being the first round of the game.
+	 * @param record The index of the GAME_START or ROUND_START record.
+	 */
+	void onRoundStart(Game game, int index, int round, long record)
+	{
+		if (round % interval != 0)
+			return;
+
+		int players = game.getPlayerCount();
+		if (buffer == null) {
+			buffer = ByteBuffer.allocate(Math.max(4096, JournalIndex.HEADER_SIZE + JournalIndex.entrySize(players)));
+			buffer.putInt(JournalIndex.MAGIC);
+			buffer.putShort(JournalIndex.VERSION);
+			buffer.putShort((short) players);
+			buffer.putInt(interval);
+			buffer.putInt(0);
+			snapshot = new GameSnapshot(players);
+		}
+
+		// Growing instead of writing keeps the entries behind the records, which are only written by the journal.
+		if (buffer.remaining() < JournalIndex.entrySize(players)) {
+			ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.flip();
+			grown.put(buffer);
+			buffer = grown;
+		}
+
+		game.snapshot(snapshot);
+		buffer.putInt(index);
+		buffer.putInt(round);
+		buffer.putInt((int) record);
+		buffer.putInt(0);
+		buffer.putInt(GameState.ROLLING.ordinal());
+		for (int seat = 0; seat < players; seat++) {
+			buffer.putInt(snapshot.getTurnPoints(seat));
+			buffer.putInt(snapshot.getBankPoints(seat));
+			buffer.putInt(snapshot.getCurrentBet(seat));
+			buffer.putInt(snapshot.getLastRoll(seat));
+		}
+	}
+
+	/**
+	 * Takes the buffered entries, so they can be written while new entries are added to another buffer. Called while
+	 * holding the journal writer, which guards the buffer.
+	 *
+	 * @return The buffered entries ready to be written, null when there are none.
+	 */
+	ByteBuffer swap()
+	{
+		if (buffer == null || buffer.position() == 0)
+			return null;
+
+		ByteBuffer entries = buffer;
+		buffer = spare == null ? ByteBuffer.allocate(entries.capacity()) : spare;
+		spare = null;
+		entries.flip();
+
+		return entries;
+	}
+
+	/**
+	 * Writes the provided entries, taken by swap(), to the channel. The buffer is kept to be swapped in again. Only one
+	 * thread at a time may swap and write.
+	 *
+	 * @param entries The entries to write.
+	 * @throws IOException When the entries could not be written.
+	 */
+	void write(ByteBuffer entries) throws IOException
+	{
+		while (entries.hasRemaining())
+			channel.write(entries);
+		entries.clear();
+		spare = entries;
+	}
+
+	/**
+	 * Forces the written entries to disk.
+	 *
+	 * @throws IOException When the entries could not be forced.
+	 */
+	void force() throws IOException
+	{
+		channel.force(false);
+	}
+
+	/**
+	 * Closes the index.
+	 *
+	 * @throws IOException When the index could not be closed.
+	 */
+	void close() throws IOException
+	{
+		channel.close();
+	}
+}
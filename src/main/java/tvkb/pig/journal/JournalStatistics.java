@@ -0,0 +1,268 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.DiceOutcome;
+import tvkb.pig.GameDecision;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregates of recorded games: the distribution of turn lengths and rounds per game, the hard resets per player type
+ * and the win rate of bets. Every journal is scanned once, record by record, and the memory used only depends on the
+ * number of player types. Statistics of different journals are combined with merge().
+ */
+public class JournalStatistics
+{
+
+	/**
+	 * The number of bins of the histograms. Longer turns and games share the last bin.
+	 */
+	private static final int BINS = 256;
+
+	/**
+	 * Index of the number of rolls in the statistics of a player type.
+	 */
+	private static final int ROLLS = 0;
+
+	/**
+	 * Index of the number of hard resets in the statistics of a player type.
+	 */
+	private static final int HARD_RESETS = 1;
+
+	/**
+	 * The number of rolls in each turn.
+	 */
+	@NotNull private final Histogram turnLengths = new Histogram(BINS);
+
+	/**
+	 * The number of rounds in each game that ended.
+	 */
+	@NotNull private final Histogram rounds = new Histogram(BINS);
+
+	/**
+	 * The number of rolls and hard resets of each player type.
+	 */
+	@NotNull private final Map<String, long[]> types = new TreeMap<>();
+
+	/**
+	 * The number of journals scanned.
+	 */
+	private long journals = 0;
+
+	/**
+	 * The number of journals skipped because they could not be read.
+	 */
+	private long skipped = 0;
+
+	/**
+	 * The number of bets placed.
+	 */
+	private long betsPlaced = 0;
+
+	/**
+	 * The number of betting pots resolved by a roll.
+	 */
+	private long betsResolved = 0;
+
+	/**
+	 * The number of betting pots won.
+	 */
+	private long betsWon = 0;
+
+	/**
+	 * Scans the records of the provided journal.
+	 *
+	 * @param journal The journal.
+	 * @return These statistics.
+	 */
+	public JournalStatistics accept(@NotNull Journal journal)
+	{
+		long[][] seats = new long[journal.getPlayerCount()][];
+		for (int seat = 0; seat < seats.length; seat++)
+			seats[seat] = types.computeIfAbsent(journal.getType(seat), type -> new long[2]);
+
+		int rolls = 0;
+		int round = 0;
+		for (int record = 0; record < journal.getRecordCount(); record++) {
+			switch (journal.getEvent(record)) {
+				case GAME_START:
+					rolls = 0;
+					round = 1;
+					break;
+				case ROUND_START:
+					round++;
+					break;
+				case GAME_END:
+					rounds.add(round);
+					break;
+				case TURN_START:
+					rolls++;
+					seats[journal.getSeat(record)][ROLLS]++;
+					recordBet(journal, record);
+					break;
+				case SOFT_RESET:
+					rolls++;
+					seats[journal.getSeat(record)][ROLLS]++;
+					break;
+				case HARD_RESET:
+					rolls++;
+					seats[journal.getSeat(record)][ROLLS]++;
+					seats[journal.getSeat(record)][HARD_RESETS]++;
+					break;
+				case TURN_END:
+					turnLengths.add(rolls);
+					rolls = 0;
+					break;
+				case DECISION_RESPONSE:
+					if (journal.getDecision(record) == GameDecision.BET)
+						betsPlaced++;
+					break;
+				default:
+					break;
+			}
+		}
+
+		journals++;
+
+		return this;
+	}
+
+	/**
+	 * Counts a journal that could not be read, and was skipped.
+	 *
+	 * @return These statistics.
+	 */
+	public JournalStatistics skip()
+	{
+		skipped++;
+
+		return this;
+	}
+
+	/**
+	 * Records the resolution of the betting pot by the roll in the provided record, when the pot is not empty. Roll
+	 * records hold the points before the roll, so the pot is the one resolved by the roll.
+	 *
+	 * @param journal The journal.
+	 * @param record  The index of the TURN_START record.
+	 */
+	private void recordBet(Journal journal, int record)
+	{
+		if (journal.getCurrentBet(record) == 0)
+			return;
+
+		betsResolved++;
+		if (DiceOutcome.winsBet(DiceOutcome.of(journal.getFirstFace(record), journal.getSecondFace(record))))
+			betsWon++;
+	}
+
+	/**
+	 * Adds the provided statistics to these statistics.
+	 *
+	 * @param other The statistics to add.
+	 * @return These statistics.
+	 */
+	public JournalStatistics merge(@NotNull JournalStatistics other)
+	{
+		turnLengths.merge(other.turnLengths);
+		rounds.merge(other.rounds);
+		for (Map.Entry<String, long[]> entry : other.types.entrySet()) {
+			long[] counts = types.computeIfAbsent(entry.getKey(), type -> new long[2]);
+			counts[ROLLS] += entry.getValue()[ROLLS];
+			counts[HARD_RESETS] += entry.getValue()[HARD_RESETS];
+		}
+
+		journals += other.journals;
+		skipped += other.skipped;
+		betsPlaced += other.betsPlaced;
+		betsResolved += other.betsResolved;
+		betsWon += other.betsWon;
+
+		return this;
+	}
+
+	/**
+	 * Returns the distribution of the number of rolls in a turn.
+	 *
+	 * @return The distribution of the number of rolls in a turn.
+	 */
+	public Histogram getTurnLengths()
+	{
+		return turnLengths;
+	}
+
+	/**
+	 * Returns the distribution of the number of rounds in a game.
+	 *
+	 * @return The distribution of the number of rounds in a game.
+	 */
+	public Histogram getRounds()
+	{
+		return rounds;
+	}
+
+	/**
+	 * Returns the fraction of the rolls of the provided player type that were hard resets.
+	 *
+	 * @param type The player type.
+	 * @return The fraction of the rolls that were hard resets, zero when the type did not roll.
+	 */
+	public double getHardResetRate(@NotNull String type)
+	{
+		long[] counts = types.get(type);
+
+		return counts == null || counts[ROLLS] == 0 ? 0 : (double) counts[HARD_RESETS] / counts[ROLLS];
+	}
+
+	/**
+	 * Returns the fraction of resolved betting pots that were won.
+	 *
+	 * @return The fraction of resolved betting pots that were won, zero when none were resolved.
+	 */
+	public double getBetWinRate()
+	{
+		return betsResolved == 0 ? 0 : (double) betsWon / betsResolved;
+	}
+
+	/**
+	 * Returns the number of journals scanned.
+	 *
+	 * @return The number of journals scanned.
+	 */
+	public long getJournals()
+	{
+		return journals;
+	}
+
+	/**
+	 * Returns the number of journals skipped because they could not be read.
+	 *
+	 * @return The number of journals skipped.
+	 */
+	public long getSkipped()
+	{
+		return skipped;
+	}
+
+	/**
+	 * Returns a human readable summary of the statistics.
+	 *
+	 * @return A human readable summary of the statistics.
+	 */
+	@Override public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("Journals: %d, skipped %d%n", journals, skipped));
+		builder.append(String.format("Games: %d%n", rounds.getCount()));
+		builder.append(String.format("Rounds per game: mean %.2f, median %d, p99 %d%n", rounds.getMean(), rounds.getPercentile(0.5), rounds.getPercentile(0.99)));
+		builder.append(String.format("Turns: %d%n", turnLengths.getCount()));
+		builder.append(String.format("Rolls per turn: mean %.2f, median %d, p99 %d%n", turnLengths.getMean(), turnLengths.getPercentile(0.5), turnLengths.getPercentile(0.99)));
+		for (Map.Entry<String, long[]> entry : types.entrySet())
+			builder.append(String.format("Hard reset rate of %s: %.4f over %d rolls%n", entry.getKey(), getHardResetRate(entry.getKey()), entry.getValue()[ROLLS]));
+		builder.append(String.format("Bets placed: %d%n", betsPlaced));
+		builder.append(String.format("Bet win rate: %.4f over %d pots%n", getBetWinRate(), betsResolved));
+
+		return builder.toString();
+	}
+}
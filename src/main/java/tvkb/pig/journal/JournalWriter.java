@@ -0,0 +1,539 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records the events of a game as fixed-width binary records, see JournalFile. Records are collected in one of two
+ * direct buffers and written to the file in large batches, while the other buffer keeps collecting. The file is forced
+ * to disk as a group commit: a background commit writes and forces the pending records once every commit interval, so
+ * records of a game waiting for a human decision reach the disk too, and the game thread never waits for a force.
+ * Without a commit interval, every batch is forced as it is written. The file is always forced when the writer is
+ * closed. The same writer can record any number of consecutive games with the same players. When an index
+ * interval is given, a JournalIndex is built next to the journal while it is recorded. Rolls are recorded by their
+ * faces, so only dice reporting the faces of their rolls, like DicePair, can be recorded.
+ */
+public class JournalWriter implements GameEventHandler, AutoCloseable
+{
+
+	/**
+	 * The default size of the record buffer, in bytes.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The default time between two forces of the file, in milliseconds.
+	 */
+	public static final long DEFAULT_COMMIT_INTERVAL = 1000;
+
+	/**
+	 * The scheduler of the background commits, shared by all writers.
+	 */
+	private static final ScheduledThreadPoolExecutor COMMITS = createCommits();
+
+	/**
+	 * The channel of the journal.
+	 */
+	@NotNull private final FileChannel channel;
+
+	/**
+	 * The buffer collecting the records not written to the channel yet. Guarded by the writer itself, which is only
+	 * held while a record is put or the buffers are swapped, never while writing.
+	 */
+	@NotNull private ByteBuffer buffer;
+
+	/**
+	 * The other buffer, swapped in when the collected records are written. Guarded by the io lock.
+	 */
+	@NotNull private ByteBuffer spare;
+
+	/**
+	 * Held while writing to the channel, so batches are written in order.
+	 */
+	@NotNull private final Object io = new Object();
+
+	/**
+	 * Held by the background commit and close(), so the file is not closed during a background commit.
+	 */
+	@NotNull private final Object commits = new Object();
+
+	/**
+	 * Whether or not data was written to the channel after the last force. Guarded by the io lock.
+	 */
+	private boolean dirty = false;
+
+	/**
+	 * The players in the recorded games, null before the first game started.
+	 */
+	private List<Player> players;
+
+	/**
+	 * The index built next to the journal, null when no index is built.
+	 */
+	@Nullable private final JournalIndexWriter index;
+
+	/**
+	 * The background commit, null when there is no commit interval.
+	 */
+	@Nullable private final ScheduledFuture<?> committer;
+
+	/**
+	 * The failure of the last background commit, thrown when the writer is closed. Guarded by the commits lock.
+	 */
+	@Nullable private IOException failure;
+
+	/**
+	 * The number of records recorded.
+	 */
+	private long records = 0;
+
+	/**
+	 * The index of the current game in the journal.
+	 */
+	private int games = -1;
+
+	/**
+	 * The current round of the current game, zero being the first round.
+	 */
+	private int round = 0;
+
+	/**
+	 * Creates a new journal writer with the default buffer size and commit interval. Existing files are truncated.
+	 *
+	 * @param file The file to write the journal to.
+	 * @throws IOException When the file could not be opened.
+	 */
+	public JournalWriter(@NotNull Path file) throws IOException
+	{
+		this(file, DEFAULT_BUFFER_SIZE, DEFAULT_COMMIT_INTERVAL);
+	}
+
+	/**
+	 * Creates a new journal writer. Existing files are truncated.
+	 *
+	 * @param file           The file to write the journal to.
+	 * @param bufferSize     The size of the record buffer, in bytes.
+	 * @param commitInterval The time between two background commits, in milliseconds, zero to force every batch as it
+	 *                       is written instead.
+	 * @throws IOException When the file could not be opened.
+	 */
+	public JournalWriter(@NotNull Path file, int bufferSize, long commitInterval) throws IOException
+	{
+		this(file, bufferSize, commitInterval, 0);
+	}
+
+	/**
+	 * Creates a new journal writer building an index next to the journal, see JournalIndex.pathOf(). Existing files
+	 * are truncated.
+	 *
+	 * @param file           The file to write the journal to.
+	 * @param bufferSize     The size of the record buffer, in bytes.
+	 * @param commitInterval The time between two background commits, in milliseconds, zero to force every batch as it
+	 *                       is written instead.
+	 * @param indexInterval  The number of rounds between two index entries, zero to build no index.
+	 * @throws IOException When the files could not be opened.
+	 */
+	public JournalWriter(@NotNull Path file, int bufferSize, long commitInterval, int indexInterval) throws IOException
+	{
+		if (bufferSize < JournalFile.RECORD_SIZE)
+			throw new IllegalArgumentException("Buffer cannot hold a single record.");
+
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(bufferSize - bufferSize % JournalFile.RECORD_SIZE);
+		this.spare = ByteBuffer.allocateDirect(buffer.capacity());
+		this.index = indexInterval == 0 ? null : new JournalIndexWriter(JournalIndex.pathOf(file), indexInterval);
+		this.committer = commitInterval <= 0 ? null : COMMITS.scheduleWithFixedDelay(this::commitPending, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Creates the scheduler of the background commits. Its single thread is a daemon, started on the first commit.
+	 *
+	 * @return The scheduler of the background commits.
+	 */
+	private static ScheduledThreadPoolExecutor createCommits()
+	{
+		ScheduledThreadPoolExecutor commits = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "journal-commits");
+			thread.setDaemon(true);
+			return thread;
+		});
+		commits.setRemoveOnCancelPolicy(true);
+
+		return commits;
+	}
+
+	/**
+	 * Called when a new game starts. Writes the header before the first game.
+	 *
+	 * @param game The new game instance.
+	 * @throws IllegalStateException When the game has more players than a journal can hold, or another number of
+	 *                               players than the games recorded before.
+	 */
+	@Override public void onGameStart(Game game)
+	{
+		if (game.getPlayerCount() > JournalFile.MAX_PLAYERS)
+			throw new IllegalStateException("Journals cannot record games with more than " + JournalFile.MAX_PLAYERS + " players.");
+
+		if (players == null) {
+			players = game.getPlayers().collect(Collectors.toList());
+			ByteBuffer header = ByteBuffer.allocate(JournalFile.headerSize(players));
+			JournalFile.writeHeader(header, players);
+			header.flip();
+			synchronized (io) {
+				write(header);
+			}
+		} else if (players.size() != game.getPlayerCount()) {
+			throw new IllegalStateException("Journal records games with " + players.size() + " players.");
+		}
+
+		record(GameEvent.GAME_START);
+		games++;
+		round = 0;
+		index(game);
+	}
+
+	/**
+	 * Called when the game ends. Writes the buffered records, and forces them when there is no background commit.
+	 *
+	 * @param game The game instance that just ended.
+	 */
+	@Override public void onGameEnd(Game game)
+	{
+		record(GameEvent.GAME_END);
+		flush();
+		if (committer == null)
+			commit();
+	}
+
+	/**
+	 * Called when a new round starts.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundStart(Game game)
+	{
+		record(GameEvent.ROUND_START);
+		round++;
+		index(game);
+	}
+
+	/**
+	 * Adds an index entry for the round that just started, at the record just recorded.
+	 *
+	 * @param game The current game instance.
+	 */
+	private void index(Game game)
+	{
+		if (index == null)
+			return;
+
+		synchronized (this) {
+			index.onRoundStart(game, games, round, records - 1);
+		}
+	}
+
+	/**
+	 * Called when a round ends.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundEnd(Game game)
+	{
+		record(GameEvent.ROUND_END);
+	}
+
+	/**
+	 * Called when a player rolled without resetting.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn it is.
+	 * @throws IllegalStateException When the dice do not report the faces of the roll.
+	 */
+	@Override public void onTurnStart(Game game, Player player)
+	{
+		record(GameEvent.TURN_START, game, player, rollOf(game), -1);
+	}
+
+	/**
+	 * Called when the turn of a player ends.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn ended.
+	 */
+	@Override public void onTurnEnd(Game game, Player player)
+	{
+		record(GameEvent.TURN_END, game, player, 0, -1);
+	}
+
+	/**
+	 * Called when a player must make a game decision.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player to make the decision.
+	 */
+	@Override public void onDecisionRequest(Game game, Player player)
+	{
+		record(GameEvent.DECISION_REQUEST, game, player, 0, -1);
+	}
+
+	/**
+	 * Called when the game has received a decision.
+	 *
+	 * @param game     The current game instance.
+	 * @param player   The player whose decision was received.
+	 * @param decision The decision that was made by the player.
+	 */
+	@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+	{
+		record(GameEvent.DECISION_RESPONSE, game, player, 0, decision.ordinal());
+	}
+
+	/**
+	 * Called when a player rolled two ones.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their bank.
+	 * @throws IllegalStateException When the dice do not report the faces of the roll.
+	 */
+	@Override public void onHardReset(Game game, Player player)
+	{
+		record(GameEvent.HARD_RESET, game, player, rollOf(game), -1);
+	}
+
+	/**
+	 * Called when a player rolled a single one.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their turn total.
+	 * @throws IllegalStateException When the dice do not report the faces of the roll.
+	 */
+	@Override public void onSoftReset(Game game, Player player)
+	{
+		record(GameEvent.SOFT_RESET, game, player, rollOf(game), -1);
+	}
+
+	/**
+	 * Returns the outcome of the last roll in the provided game. Records with zero faces are not rolls, so a roll
+	 * without faces would be skipped when the journal is read or replayed.
+	 *
+	 * @param game The current game instance.
+	 * @return The outcome of the last roll.
+	 * @throws IllegalStateException When the dice do not report the faces of the roll.
+	 */
+	private int rollOf(Game game)
+	{
+		int outcome = game.getLastOutcome();
+		if (DiceOutcome.getFirstFace(outcome) == 0 || DiceOutcome.getSecondFace(outcome) == 0)
+			throw new IllegalStateException("Journals can only record dice reporting the faces of their rolls.");
+
+		return outcome;
+	}
+
+	/**
+	 * Called when an error occurs in the game. Only the occurrence is recorded, not the message.
+	 *
+	 * @param message The error message.
+	 */
+	@Override public void onError(String message)
+	{
+		record(GameEvent.ERROR);
+	}
+
+	/**
+	 * Records an event about the whole game.
+	 *
+	 * @param event The type of event.
+	 */
+	private void record(GameEvent event)
+	{
+		record(event, -1, 0, 0, -1, 0, 0, 0);
+	}
+
+	/**
+	 * Records an event about a player, with the points of the player at the time the event was sent. Rolls are sent
+	 * before the roll is applied, so their records hold the points before the roll.
+	 *
+	 * @param event    The type of event.
+	 * @param game     The current game instance.
+	 * @param player   The player the event is about.
+	 * @param outcome  The outcome of the roll, zero when the event is not a roll.
+	 * @param decision The ordinal of the decision, -1 when the event is not a decision response.
+	 */
+	private void record(GameEvent event, Game game, Player player, int outcome, int decision)
+	{
+		record(
+				event,
+				decision,
+				outcome == 0 ? 0 : DiceOutcome.getFirstFace(outcome),
+				outcome == 0 ? 0 : DiceOutcome.getSecondFace(outcome),
+				game.getSeat(player),
+				player.getTurnPoints(),
+				player.getBankPoints(),
+				player.getCurrentBet()
+		);
+	}
+
+	/**
+	 * Puts a record into the buffer. When the buffer is full, the buffered records are written first, and forced when
+	 * there is no background commit.
+	 *
+	 * @param event      The type of event.
+	 * @param decision   The ordinal of the decision, -1 when the event is not a decision response.
+	 * @param firstFace  The first face of the dice, zero when the event is not a roll.
+	 * @param secondFace The second face of the dice, zero when the event is not a roll.
+	 * @param seat       The seat of the player, -1 when the event is about the whole game.
+	 * @param turnPoints The turn points of the player.
+	 * @param bankPoints The bank points of the player.
+	 * @param bet        The current bet of the player.
+	 */
+	private void record(GameEvent event, int decision, int firstFace, int secondFace, int seat, int turnPoints, int bankPoints, int bet)
+	{
+		while (true) {
+			synchronized (this) {
+				if (buffer.remaining() >= JournalFile.RECORD_SIZE) {
+					records++;
+					buffer.put((byte) event.ordinal());
+					buffer.put((byte) decision);
+					buffer.put((byte) firstFace);
+					buffer.put((byte) secondFace);
+					buffer.putInt(seat);
+					buffer.putInt(turnPoints);
+					buffer.putInt(bankPoints);
+					buffer.putInt(bet);
+					return;
+				}
+			}
+
+			flush();
+			if (committer == null)
+				commit();
+		}
+	}
+
+	/**
+	 * Writes the buffered records to the channel, followed by the buffered index entries. The buffers are swapped while
+	 * holding the writer, and written after releasing it, so records can be put while the batch is written.
+	 */
+	public void flush()
+	{
+		synchronized (io) {
+			ByteBuffer written;
+			ByteBuffer entries;
+			synchronized (this) {
+				written = buffer;
+				buffer = spare;
+				entries = index == null ? null : index.swap();
+			}
+
+			written.flip();
+			write(written);
+			written.clear();
+			spare = written;
+
+			if (entries == null)
+				return;
+
+			try {
+				index.write(entries);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Writes the provided bytes to the channel. Must be called while holding the io lock.
+	 *
+	 * @param bytes The bytes to write.
+	 */
+	private void write(ByteBuffer bytes)
+	{
+		if (!bytes.hasRemaining())
+			return;
+
+		try {
+			while (bytes.hasRemaining())
+				channel.write(bytes);
+			dirty = true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Forces the written records to disk, unless nothing was written since the last force. The force itself runs
+	 * without holding any lock, so batches can be written meanwhile.
+	 */
+	private void commit()
+	{
+		synchronized (io) {
+			if (!dirty)
+				return;
+			dirty = false;
+		}
+
+		try {
+			channel.force(false);
+			if (index != null)
+				index.force();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the buffered records and forces them to disk. Run by the background commit, so no record waits longer than
+	 * about the commit interval. Failures are kept and thrown when the writer is closed.
+	 */
+	private void commitPending()
+	{
+		synchronized (commits) {
+			try {
+				flush();
+				commit();
+			} catch (UncheckedIOException e) {
+				if (failure == null)
+					failure = e.getCause();
+			}
+		}
+	}
+
+	/**
+	 * Stops the background commit, writes the buffered records, forces them to disk and closes the file.
+	 *
+	 * @throws IOException When the file could not be written or closed, or a background commit failed.
+	 */
+	@Override public void close() throws IOException
+	{
+		if (committer != null)
+			committer.cancel(false);
+
+		synchronized (commits) {
+			try {
+				flush();
+				commit();
+				if (failure != null)
+					throw failure;
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			} finally {
+				channel.close();
+				if (index != null)
+					index.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,489 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.*;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-drives a game from a journal. The dice roll the recorded faces and the players make the recorded decisions, while
+ * every event of the replayed game is checked against the recorded event. Any divergence throws a
+ * ReplayMismatchException. The same game instance is reused for every replay, so games can be replayed many times at
+ * full speed, or paced to a number of events per second. With a JournalIndex, a replay can start at any round: the game
+ * is restored from the nearest checkpoint before the round, and the rounds up to the requested round are replayed
+ * without being sent to the event handlers. Recorded errors are skipped, they are not part of the game.
+ */
+public class Replay
+{
+
+	/**
+	 * No event handlers.
+	 */
+	private static final GameEventHandler[] NONE = new GameEventHandler[0];
+
+	/**
+	 * The journal to replay.
+	 */
+	@NotNull private final Journal journal;
+
+	/**
+	 * The replayed game.
+	 */
+	@NotNull private final Game game;
+
+	/**
+	 * The event handlers receiving the events of the replayed games, by the ordinal of the GameEvent.
+	 */
+	@NotNull private final GameEventHandler[][] subscribers;
+
+	/**
+	 * The snapshot checkpoints are restored from, null before the first replay from an index.
+	 */
+	private GameSnapshot snapshot;
+
+	/**
+	 * The current round of the replayed game, zero being the first round.
+	 */
+	private int round;
+
+	/**
+	 * The first round whose events are sent to the event handlers.
+	 */
+	private int visibleFrom;
+
+	/**
+	 * The record to continue reading rolls and decisions at.
+	 */
+	private int input;
+
+	/**
+	 * The record the next event of the replayed game is checked against.
+	 */
+	private int expected;
+
+	/**
+	 * The time between two events, in nanoseconds, zero for full speed.
+	 */
+	private long eventInterval = 0;
+
+	/**
+	 * The time the next event is due, from System.nanoTime().
+	 */
+	private long nextEvent;
+
+	/**
+	 * Creates a new replay of the provided journal.
+	 *
+	 * @param journal  The journal to replay.
+	 * @param handlers The event handlers receiving the events of the replayed games.
+	 */
+	public Replay(@NotNull Journal journal, @NotNull List<GameEventHandler> handlers)
+	{
+		List<Player> players = new ArrayList<>();
+		for (int seat = 0; seat < journal.getPlayerCount(); seat++)
+			players.add(new ReplayPlayer(journal.getName(seat), this));
+
+		this.journal = journal;
+		this.subscribers = subscribe(handlers);
+		this.game = new Game(new ReplayDice(this), new Verifier(), players);
+	}
+
+	/**
+	 * Groups the provided event handlers by the types of events they subscribe to.
+	 *
+	 * @param handlers The event handlers.
+	 * @return The handlers subscribed to each type of event, indexed by the ordinal of the GameEvent.
+	 */
+	private static GameEventHandler[][] subscribe(List<GameEventHandler> handlers)
+	{
+		GameEvent[]          events      = GameEvent.values();
+		GameEventHandler[][] subscribers = new GameEventHandler[events.length][];
+
+		for (GameEvent event : events) {
+			List<GameEventHandler> subscribed = new ArrayList<>();
+			for (GameEventHandler handler : handlers)
+				if (handler.getSubscriptions().contains(event))
+					subscribed.add(handler);
+
+			subscribers[event.ordinal()] = subscribed.toArray(new GameEventHandler[0]);
+		}
+
+		return subscribers;
+	}
+
+	/**
+	 * Runs the replays in the provided journal, printing the number of games replayed per second.
+	 *
+	 * @param args The journal, and optionally the number of times to replay every game.
+	 * @throws IOException When the journal could not be mapped.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		Journal journal = new Journal(Paths.get(args[0]));
+		int     times   = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+		Replay  replay  = new Replay(journal, new ArrayList<>());
+
+		long start = System.nanoTime();
+		for (int i = 0; i < times; i++)
+			replay.replayAll();
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long games = (long) journal.getGameCount() * times;
+		System.out.println(String.format("Replayed %d games in %.2f s, %.0f games/s.", games, seconds, games / seconds));
+	}
+
+	/**
+	 * Paces the replay to the provided number of events per second.
+	 *
+	 * @param eventsPerSecond The number of events per second, zero or less for full speed.
+	 */
+	public void setRate(double eventsPerSecond)
+	{
+		this.eventInterval = eventsPerSecond <= 0 ? 0 : (long) (1e9 / eventsPerSecond);
+	}
+
+	/**
+	 * Replays every game in the journal.
+	 *
+	 * @throws ReplayMismatchException When a game diverges from the journal.
+	 */
+	public void replayAll()
+	{
+		for (int i = 0; i < journal.getGameCount(); i++)
+			replay(i);
+	}
+
+	/**
+	 * Replays the provided game.
+	 *
+	 * @param index The index of the game in the journal.
+	 * @throws ReplayMismatchException When the game diverges from the journal, or the journal ends before the game.
+	 */
+	public void replay(int index)
+	{
+		int start = journal.getGameStart(index);
+		this.input = start;
+		this.expected = start;
+		this.visibleFrom = 0;
+		this.nextEvent = System.nanoTime();
+
+		game.reset();
+		try {
+			game.start();
+		} catch (GameStartException e) {
+			throw new ReplayMismatchException(start, e.getMessage());
+		}
+
+		if (game.getState() != GameState.ENDED)
+			throw new ReplayMismatchException(expected, "the game did not end.");
+	}
+
+	/**
+	 * Replays the provided game from the start of the provided round. The game is restored from the last checkpoint
+	 * of the index at or before the round. The rounds between the checkpoint and the requested round are replayed and
+	 * verified, but not sent to the event handlers or paced. Events before the checkpoint, including the start of the
+	 * game, are not replayed.
+	 *
+	 * @param index The index of the journal.
+	 * @param game  The index of the game in the journal.
+	 * @param round The round to start at, zero being the first round of the game.
+	 * @throws ReplayMismatchException When the game diverges from the journal, or the journal ends before the game.
+	 */
+	public void replayFrom(@NotNull JournalIndex index, int game, int round)
+	{
+		if (index.getPlayerCount() != journal.getPlayerCount())
+			throw new IllegalArgumentException("Index does not match the number of players in the journal.");
+
+		if (snapshot == null)
+			snapshot = new GameSnapshot(journal.getPlayerCount());
+
+		int entry  = index.find(game, round);
+		int record = index.getRecord(entry);
+		if (record >= journal.getRecordCount())
+			throw new ReplayMismatchException(record, "the index points past the end of the journal.");
+
+		index.checkpoint(entry, snapshot);
+		this.input = record + 1;
+		this.expected = record + 1;
+		this.round = index.getRound(entry);
+		this.visibleFrom = round;
+		this.nextEvent = System.nanoTime();
+
+		this.game.reset();
+		this.game.restore(snapshot);
+		this.game.runToCompletion();
+
+		if (this.game.getState() != GameState.ENDED)
+			throw new ReplayMismatchException(expected, "the game did not end.");
+	}
+
+	/**
+	 * Returns the current round of the replayed game.
+	 *
+	 * @return The current round of the replayed game, zero being the first round.
+	 */
+	public int getRound()
+	{
+		return round;
+	}
+
+	/**
+	 * Returns the replayed game.
+	 *
+	 * @return The replayed game.
+	 */
+	public Game getGame()
+	{
+		return game;
+	}
+
+	/**
+	 * Returns the outcome of the next recorded roll. Called by the replay dice.
+	 *
+	 * @return The outcome of the next recorded roll.
+	 */
+	int nextRoll()
+	{
+		int record = journal.nextRoll(input);
+		if (record < 0)
+			throw new ReplayMismatchException(journal.getRecordCount(), "the journal has no more rolls.");
+
+		this.input = record + 1;
+
+		return DiceOutcome.of(journal.getFirstFace(record), journal.getSecondFace(record));
+	}
+
+	/**
+	 * Makes the next recorded decision for the provided player. Called by the replay players.
+	 *
+	 * @param game   The replayed game.
+	 * @param player The player to make the decision.
+	 */
+	void decide(Game game, Player player)
+	{
+		int record = journal.next(GameEvent.DECISION_RESPONSE, input);
+		if (record < 0)
+			throw new ReplayMismatchException(journal.getRecordCount(), "the journal has no more decisions.");
+		if (journal.getSeat(record) != game.getSeat(player))
+			throw new ReplayMismatchException(record, "the decision was made by another player.");
+
+		this.input = record + 1;
+
+		// Players that delegated their decision to the event handlers sent a decision request first.
+		this.expected = skipErrors(expected);
+		if (expected < journal.getRecordCount() && journal.getEvent(expected) == GameEvent.DECISION_REQUEST)
+			game.sendDecisionRequest(player);
+
+		GameDecision decision = journal.getDecision(record);
+		if (decision == GameDecision.SAVE) {
+			game.respondSave(player);
+			return;
+		}
+
+		if (decision == GameDecision.BET) {
+			try {
+				game.respondBet(player, journal.getCurrentBet(record) - player.getCurrentBet());
+			} catch (NotEnoughPointsException | IllegalArgumentException e) {
+				throw new ReplayMismatchException(record, "the recorded bet cannot be made.");
+			}
+			return;
+		}
+
+		game.respondContinue(player);
+	}
+
+	/**
+	 * Returns the index of the first record at or after the provided record that is not an error. Errors are recorded
+	 * for decisions the recorded game rejected, which the replayed game never receives.
+	 *
+	 * @param record The index of the record to start at.
+	 * @return The index of the record, the number of records if there is none.
+	 */
+	private int skipErrors(int record)
+	{
+		while (record < journal.getRecordCount() && journal.getEvent(record) == GameEvent.ERROR)
+			record++;
+
+		return record;
+	}
+
+	/**
+	 * Returns the event handlers to send the provided type of event to, none while the rounds before the requested
+	 * round are replayed.
+	 *
+	 * @param event The type of event.
+	 * @return The event handlers to send the event to.
+	 */
+	private GameEventHandler[] subscribers(GameEvent event)
+	{
+		return round < visibleFrom ? NONE : subscribers[event.ordinal()];
+	}
+
+	/**
+	 * Checks the events of the replayed game against the journal, paces the replay and sends the events on to the
+	 * event handlers.
+	 */
+	private class Verifier implements GameEventHandler
+	{
+
+		/**
+		 * Checks an event about the whole game against the next recorded event.
+		 *
+		 * @param event The type of event.
+		 */
+		private void verify(GameEvent event)
+		{
+			int record = next(event);
+			if (journal.getSeat(record) != -1)
+				throw new ReplayMismatchException(record, "the recorded event is about a player.");
+		}
+
+		/**
+		 * Checks an event about a player against the next recorded event.
+		 *
+		 * @param event    The type of event.
+		 * @param game     The replayed game.
+		 * @param player   The player the event is about.
+		 * @param outcome  The outcome of the roll, zero when the event is not a roll.
+		 * @param decision The decision, null when the event is not a decision response.
+		 */
+		private void verify(GameEvent event, Game game, Player player, int outcome, GameDecision decision)
+		{
+			int record = next(event);
+			if (journal.getSeat(record) != game.getSeat(player))
+				throw new ReplayMismatchException(record, "expected seat " + journal.getSeat(record) + ".");
+			if (outcome != 0 && (journal.getFirstFace(record) != DiceOutcome.getFirstFace(outcome) || journal.getSecondFace(record) != DiceOutcome.getSecondFace(outcome)))
+				throw new ReplayMismatchException(record, "the dice show other faces.");
+			if (journal.getDecision(record) != decision)
+				throw new ReplayMismatchException(record, "expected decision " + journal.getDecision(record) + ".");
+			if (journal.getTurnPoints(record) != player.getTurnPoints())
+				throw new ReplayMismatchException(record, "expected " + journal.getTurnPoints(record) + " turn points, was " + player.getTurnPoints() + ".");
+			if (journal.getBankPoints(record) != player.getBankPoints())
+				throw new ReplayMismatchException(record, "expected " + journal.getBankPoints(record) + " bank points, was " + player.getBankPoints() + ".");
+			if (journal.getCurrentBet(record) != player.getCurrentBet())
+				throw new ReplayMismatchException(record, "expected a bet of " + journal.getCurrentBet(record) + ", was " + player.getCurrentBet() + ".");
+		}
+
+		/**
+		 * Returns the next recorded event, after checking its type and waiting until it is due.
+		 *
+		 * @param event The type of event of the replayed game.
+		 * @return The index of the record.
+		 */
+		private int next(GameEvent event)
+		{
+			int record = skipErrors(expected);
+			if (record >= journal.getRecordCount())
+				throw new ReplayMismatchException(record, "the journal ended before the game.");
+			if (journal.getEvent(record) != event)
+				throw new ReplayMismatchException(record, "expected " + journal.getEvent(record) + ", was " + event + ".");
+
+			expected = record + 1;
+			if (round >= visibleFrom)
+				pace();
+
+			return record;
+		}
+
+		/**
+		 * Waits until the next event is due, when the replay is paced.
+		 */
+		private void pace()
+		{
+			if (eventInterval == 0)
+				return;
+
+			nextEvent += eventInterval;
+			long delay;
+			while ((delay = nextEvent - System.nanoTime()) > 0)
+				LockSupport.parkNanos(delay);
+		}
+
+		@Override public void onGameStart(Game game)
+		{
+			verify(GameEvent.GAME_START);
+			round = 0;
+			for (GameEventHandler handler : subscribers(GameEvent.GAME_START))
+				handler.onGameStart(game);
+		}
+
+		@Override public void onGameEnd(Game game)
+		{
+			verify(GameEvent.GAME_END);
+			for (GameEventHandler handler : subscribers(GameEvent.GAME_END))
+				handler.onGameEnd(game);
+		}
+
+		@Override public void onRoundStart(Game game)
+		{
+			verify(GameEvent.ROUND_START);
+			round++;
+			for (GameEventHandler handler : subscribers(GameEvent.ROUND_START))
+				handler.onRoundStart(game);
+		}
+
+		@Override public void onRoundEnd(Game game)
+		{
+			verify(GameEvent.ROUND_END);
+			for (GameEventHandler handler : subscribers(GameEvent.ROUND_END))
+				handler.onRoundEnd(game);
+		}
+
+		@Override public void onTurnStart(Game game, Player player)
+		{
+			verify(GameEvent.TURN_START, game, player, game.getLastOutcome(), null);
+			for (GameEventHandler handler : subscribers(GameEvent.TURN_START))
+				handler.onTurnStart(game, player);
+		}
+
+		@Override public void onTurnEnd(Game game, Player player)
+		{
+			verify(GameEvent.TURN_END, game, player, 0, null);
+			for (GameEventHandler handler : subscribers(GameEvent.TURN_END))
+				handler.onTurnEnd(game, player);
+		}
+
+		@Override public void onDecisionRequest(Game game, Player player)
+		{
+			verify(GameEvent.DECISION_REQUEST, game, player, 0, null);
+			for (GameEventHandler handler : subscribers(GameEvent.DECISION_REQUEST))
+				handler.onDecisionRequest(game, player);
+		}
+
+		@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+		{
+			verify(GameEvent.DECISION_RESPONSE, game, player, 0, decision);
+			for (GameEventHandler handler : subscribers(GameEvent.DECISION_RESPONSE))
+				handler.onDecisionResponse(game, player, decision);
+		}
+
+		@Override public void onHardReset(Game game, Player player)
+		{
+			verify(GameEvent.HARD_RESET, game, player, game.getLastOutcome(), null);
+			for (GameEventHandler handler : subscribers(GameEvent.HARD_RESET))
+				handler.onHardReset(game, player);
+		}
+
+		@Override public void onSoftReset(Game game, Player player)
+		{
+			verify(GameEvent.SOFT_RESET, game, player, game.getLastOutcome(), null);
+			for (GameEventHandler handler : subscribers(GameEvent.SOFT_RESET))
+				handler.onSoftReset(game, player);
+		}
+
+		/**
+		 * Sends errors of the replayed game on without checking them, recorded errors are skipped instead.
+		 *
+		 * @param message The message.
+		 */
+		@Override public void onError(String message)
+		{
+			for (GameEventHandler handler : subscribers(GameEvent.ERROR))
+				handler.onError(message);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Dice;
+import tvkb.pig.DiceOutcome;
+
+/**
+ * Dice rolling the faces recorded in a journal, in order.
+ */
+public class ReplayDice implements Dice
+{
+
+	/**
+	 * The replay reading the journal.
+	 */
+	@NotNull private final Replay replay;
+
+	/**
+	 * The outcome of the last roll.
+	 */
+	private int outcome = DiceOutcome.pack(0, false, false, false);
+
+	/**
+	 * Creates new replay dice.
+	 *
+	 * @param replay The replay reading the journal.
+	 */
+	ReplayDice(@NotNull Replay replay)
+	{
+		this.replay = replay;
+	}
+
+	/**
+	 * Rolls the next recorded faces.
+	 */
+	@Override public void roll()
+	{
+		this.outcome = replay.nextRoll();
+	}
+
+	/**
+	 * Returns the sum of the faces.
+	 *
+	 * @return The sum of the faces.
+	 */
+	@Override public int sum()
+	{
+		return DiceOutcome.sum(outcome);
+	}
+
+	/**
+	 * Returns true if the faces force a soft reset.
+	 *
+	 * @return True if the faces force a soft reset.
+	 */
+	@Override public boolean forcesSoftReset()
+	{
+		return DiceOutcome.forcesSoftReset(outcome);
+	}
+
+	/**
+	 * Returns true if the faces force a hard reset.
+	 *
+	 * @return True if the faces force a hard reset.
+	 */
+	@Override public boolean forcesHardReset()
+	{
+		return DiceOutcome.forcesHardReset(outcome);
+	}
+
+	/**
+	 * Returns true if the faces win a bet.
+	 *
+	 * @return True if the faces win a bet.
+	 */
+	@Override public boolean winsBet()
+	{
+		return DiceOutcome.winsBet(outcome);
+	}
+
+	/**
+	 * Returns the outcome of the last roll.
+	 *
+	 * @return The outcome of the last roll.
+	 */
+	@Override public int outcome()
+	{
+		return outcome;
+	}
+}
@@ -0,0 +1,35 @@
+package tvkb.pig.journal;
+
+/**
+ * Thrown when a replayed game diverges from its journal.
+ */
+public class ReplayMismatchException extends IllegalStateException
+{
+
+	/**
+	 * The index of the record the replay diverged at.
+	 */
+	private final int record;
+
+	/**
+	 * Creates a new replay mismatch exception.
+	 *
+	 * @param record  The index of the record the replay diverged at.
+	 * @param message The description of the mismatch.
+	 */
+	public ReplayMismatchException(int record, String message)
+	{
+		super(String.format("Replay diverged at record %d: %s", record, message));
+		this.record = record;
+	}
+
+	/**
+	 * Returns the index of the record the replay diverged at.
+	 *
+	 * @return The index of the record the replay diverged at.
+	 */
+	public int getRecord()
+	{
+		return record;
+	}
+}
@@ -0,0 +1,39 @@
+package tvkb.pig.journal;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Game;
+import tvkb.pig.Player;
+
+/**
+ * A player making the decisions recorded in a journal.
+ */
+public class ReplayPlayer extends Player
+{
+
+	/**
+	 * The replay reading the journal.
+	 */
+	@NotNull private final Replay replay;
+
+	/**
+	 * Creates a new replay player.
+	 *
+	 * @param name   The name of the recorded player.
+	 * @param replay The replay reading the journal.
+	 */
+	ReplayPlayer(@NotNull String name, @NotNull Replay replay)
+	{
+		super(name);
+		this.replay = replay;
+	}
+
+	/**
+	 * Makes the next recorded decision.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override protected void requestDecision(Game game)
+	{
+		replay.decide(game, this);
+	}
+}
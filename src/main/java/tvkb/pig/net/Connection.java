@@ -0,0 +1,211 @@
+package tvkb.pig.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.HumanPlayer;
+import tvkb.pig.server.Table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client connected to the socket server. Reading and the player state belong to the selector thread, while lines can
+ * be sent from any thread. The output queue is bounded, a client that falls too far behind is disconnected.
+ */
+final class Connection implements Subscriber
+{
+
+	/**
+	 * The maximum number of buffers written to the channel in a single gathering write.
+	 */
+	private static final int GATHER = 16;
+
+	/**
+	 * The server the client is connected to.
+	 */
+	@NotNull private final SocketServer server;
+
+	/**
+	 * The channel of the client.
+	 */
+	@NotNull final SocketChannel channel;
+
+	/**
+	 * The selection key of the channel.
+	 */
+	@NotNull final SelectionKey key;
+
+	/**
+	 * The bytes of the incomplete line read from the client.
+	 */
+	@NotNull final ByteBuffer input = ByteBuffer.allocate(SocketServer.MAX_LINE);
+
+	/**
+	 * The buffers waiting to be written to the client.
+	 */
+	@NotNull private final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether or not the connection is waiting for the selector to write its output.
+	 */
+	@NotNull private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+	/**
+	 * The number of buffers in the output.
+	 */
+	@NotNull private final AtomicInteger queued = new AtomicInteger();
+
+	/**
+	 * The maximum number of buffers in the output before the client is disconnected.
+	 */
+	private final int capacity;
+
+	/**
+	 * The buffers of the current gathering write. Only accessed from the selector thread.
+	 */
+	@NotNull private final ByteBuffer[] gather = new ByteBuffer[GATHER];
+
+	/**
+	 * The name the client reserved, null before the client joined.
+	 */
+	@Nullable String name;
+
+	/**
+	 * The player of the client, null when the client is neither waiting for a table nor playing.
+	 */
+	@Nullable volatile HumanPlayer player;
+
+	/**
+	 * The table the client plays at, null while the client is not playing.
+	 */
+	@Nullable volatile Table table;
+
+	/**
+	 * The broadcaster of the table of the client.
+	 */
+	@Nullable volatile SpectatorBroadcaster broadcaster;
+
+	/**
+	 * The number of the last decision request of the player.
+	 */
+	volatile long request;
+
+	/**
+	 * Whether or not the connection has been closed.
+	 */
+	volatile boolean closed;
+
+	/**
+	 * Creates a new connection.
+	 *
+	 * @param server   The server the client is connected to.
+	 * @param channel  The channel of the client.
+	 * @param key      The selection key of the channel.
+	 * @param capacity The maximum number of buffers in the output before the client is disconnected.
+	 */
+	Connection(@NotNull SocketServer server, @NotNull SocketChannel channel, @NotNull SelectionKey key, int capacity)
+	{
+		this.server = server;
+		this.channel = channel;
+		this.key = key;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Sends the provided line to the client.
+	 *
+	 * @param line The line, without the line terminator.
+	 */
+	void send(String line)
+	{
+		send(ByteBuffer.wrap((line + '\n').getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	/**
+	 * Sends the provided bytes to the client. The buffer must not be modified afterwards. A client whose output is full
+	 * is disconnected.
+	 *
+	 * @param buffer The bytes to send.
+	 * @return False if the output of the client is full or the connection is closed.
+	 */
+	boolean send(ByteBuffer buffer)
+	{
+		if (closed)
+			return false;
+
+		if (queued.incrementAndGet() > capacity) {
+			queued.decrementAndGet();
+			server.requestClose(this);
+			return false;
+		}
+
+		output.add(buffer);
+		if (flushing.compareAndSet(false, true))
+			server.requestWrite(this);
+
+		return true;
+	}
+
+	/**
+	 * Offers an encoded event to the client.
+	 *
+	 * @param event The encoded event.
+	 * @return False if the output of the client is full or the connection is closed.
+	 */
+	@Override public boolean offer(ByteBuffer event)
+	{
+		return send(event);
+	}
+
+	/**
+	 * Writes as much of the output as the channel accepts, gathering several buffers into each write. Called from the
+	 * selector thread.
+	 *
+	 * @return True if all output was written.
+	 * @throws IOException When the output could not be written.
+	 */
+	boolean flush() throws IOException
+	{
+		while (true) {
+			int count = 0;
+			for (ByteBuffer buffer : output) {
+				gather[count++] = buffer;
+				if (count == GATHER)
+					break;
+			}
+
+			if (count == 0)
+				break;
+
+			channel.write(gather, 0, count);
+
+			int written = 0;
+			while (written < count && !gather[written].hasRemaining()) {
+				output.poll();
+				written++;
+			}
+
+			queued.addAndGet(-written);
+			Arrays.fill(gather, 0, count, null);
+
+			if (written < count)
+				return false;
+		}
+
+		flushing.set(false);
+
+		// Output added after the last poll but before the flag was released would otherwise never be written.
+		if (!output.isEmpty() && flushing.compareAndSet(false, true))
+			return false;
+
+		return true;
+	}
+}
@@ -0,0 +1,112 @@
+package tvkb.pig.net;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.*;
+
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the connections of the players at a table in sync with the game. The events themselves reach the connections
+ * through the SpectatorBroadcaster of the table.
+ */
+final class ConnectionEventHandler implements GameEventHandler
+{
+
+	/**
+	 * The connections at the table.
+	 */
+	@NotNull private final Connection[] connections;
+
+	/**
+	 * The connection of each player at the table.
+	 */
+	@NotNull private final Map<Player, Connection> players = new IdentityHashMap<>();
+
+	/**
+	 * Creates a new event handler.
+	 *
+	 * @param connections The connections at the table, the players must have joined.
+	 */
+	ConnectionEventHandler(@NotNull List<Connection> connections)
+	{
+		this.connections = connections.toArray(new Connection[0]);
+		for (Connection connection : connections)
+			players.put(connection.player, connection);
+	}
+
+	/**
+	 * Returns the types of events the handler listens to.
+	 *
+	 * @return The types of events the handler listens to.
+	 */
+	@Override public Set<GameEvent> getSubscriptions()
+	{
+		return EnumSet.of(GameEvent.GAME_END, GameEvent.DECISION_REQUEST);
+	}
+
+	/**
+	 * Called when the game ends. Lets the players join another table.
+	 *
+	 * @param game The game instance that just ended.
+	 */
+	@Override public void onGameEnd(Game game)
+	{
+		for (Connection connection : connections) {
+			connection.table = null;
+			connection.player = null;
+		}
+	}
+
+	/**
+	 * Called when a player must make a game decision. Remembers the request for the connection of the player.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player to make the decision.
+	 */
+	@Override public void onDecisionRequest(Game game, Player player)
+	{
+		Connection connection = players.get(player);
+		if (connection != null)
+			connection.request = game.getDecisionRequest();
+	}
+
+	@Override public void onGameStart(Game game)
+	{
+	}
+
+	@Override public void onRoundStart(Game game)
+	{
+	}
+
+	@Override public void onRoundEnd(Game game)
+	{
+	}
+
+	@Override public void onTurnStart(Game game, Player player)
+	{
+	}
+
+	@Override public void onTurnEnd(Game game, Player player)
+	{
+	}
+
+	@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+	{
+	}
+
+	@Override public void onHardReset(Game game, Player player)
+	{
+	}
+
+	@Override public void onSoftReset(Game game, Player player)
+	{
+	}
+
+	@Override public void onError(String message)
+	{
+	}
+}
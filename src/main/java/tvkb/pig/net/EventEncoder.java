@@ -0,0 +1,126 @@
+package tvkb.pig.net;
+
+import tvkb.pig.GameDecision;
+import tvkb.pig.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes game events as the lines of the socket protocol.
+ */
+final class EventEncoder
+{
+
+	/**
+	 * Not instantiable.
+	 */
+	private EventEncoder()
+	{
+	}
+
+	/**
+	 * Returns the line announcing the start of a game.
+	 *
+	 * @param players The players in the game.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer gameStart(List<Player> players)
+	{
+		StringBuilder line = new StringBuilder("GAME_START");
+		for (Player player : players)
+			line.append(' ').append(player.getName());
+
+		return encode(line);
+	}
+
+	/**
+	 * Returns the line announcing the end of a game.
+	 *
+	 * @param winners The winners of the game.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer gameEnd(List<Player> winners)
+	{
+		StringBuilder line = new StringBuilder("GAME_END");
+		for (Player winner : winners)
+			line.append(' ').append(winner.getName());
+
+		return encode(line);
+	}
+
+	/**
+	 * Returns a line without arguments.
+	 *
+	 * @param keyword The keyword of the line.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer keyword(String keyword)
+	{
+		return encode(new StringBuilder(keyword));
+	}
+
+	/**
+	 * Returns a line about a player.
+	 *
+	 * @param keyword The keyword of the line.
+	 * @param player  The player.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer player(String keyword, Player player)
+	{
+		return encode(new StringBuilder(keyword).append(' ').append(player.getName()));
+	}
+
+	/**
+	 * Returns a line about a player, with numeric arguments.
+	 *
+	 * @param keyword The keyword of the line.
+	 * @param player  The player.
+	 * @param values  The numeric arguments.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer player(String keyword, Player player, int... values)
+	{
+		StringBuilder line = new StringBuilder(keyword).append(' ').append(player.getName());
+		for (int value : values)
+			line.append(' ').append(value);
+
+		return encode(line);
+	}
+
+	/**
+	 * Returns the line announcing a decision.
+	 *
+	 * @param player   The player who made the decision.
+	 * @param decision The decision.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer response(Player player, GameDecision decision)
+	{
+		return encode(new StringBuilder("RESPONSE ").append(player.getName()).append(' ').append(decision.name()));
+	}
+
+	/**
+	 * Returns the line reporting an error.
+	 *
+	 * @param message The error message.
+	 * @return The encoded line.
+	 */
+	static ByteBuffer error(String message)
+	{
+		return encode(new StringBuilder("ERROR ").append(message));
+	}
+
+	/**
+	 * Terminates and encodes the provided line.
+	 *
+	 * @param line The line, without the line terminator.
+	 * @return A read-only buffer with the encoded line.
+	 */
+	private static ByteBuffer encode(StringBuilder line)
+	{
+		return ByteBuffer.wrap(line.append('\n').toString().getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
+	}
+}
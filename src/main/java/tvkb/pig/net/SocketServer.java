@@ -0,0 +1,518 @@
+package tvkb.pig.net;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.*;
+import tvkb.pig.server.Lobby;
+import tvkb.pig.server.Table;
+import tvkb.pig.server.TableServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Non-blocking TCP front-end letting remote clients play at the tables of a TableServer. A single selector thread
+ * serves every connection. Clients speak a line protocol:
+ * <pre>
+ *     JOIN name      queue for a table in the lobby
+ *     WATCH table    watch the table with the provided id
+ *     CONTINUE       continue the turn
+ *     SAVE           save the turn points
+ *     BET amount     bet points on the next roll
+ *     QUIT           close the connection
+ * </pre>
+ * The server answers with one line per game event, see SpectatorBroadcaster. Players are told the id of their table
+ * with a TABLE line when it opens.
+ */
+public class SocketServer implements Runnable, AutoCloseable
+{
+
+	/**
+	 * The maximum length of a line sent by a client, longer lines close the connection.
+	 */
+	static final int MAX_LINE = 128;
+
+	/**
+	 * The maximum number of lines queued for a client before it is disconnected.
+	 */
+	static final int MAX_QUEUED = 1024;
+
+	/**
+	 * The selector serving the connections.
+	 */
+	@NotNull private final Selector selector;
+
+	/**
+	 * The channel accepting new connections.
+	 */
+	@NotNull private final ServerSocketChannel serverChannel;
+
+	/**
+	 * The server hosting the tables.
+	 */
+	@NotNull private final TableServer tables;
+
+	/**
+	 * The lobby seating the joined players.
+	 */
+	@NotNull private final Lobby lobby;
+
+	/**
+	 * The connections with output to write, registered for writing by the selector thread.
+	 */
+	@NotNull private final Queue<Connection> writable = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The connections to close, closed by the selector thread.
+	 */
+	@NotNull private final Queue<Connection> closable = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The broadcasters of the open tables, by table id.
+	 */
+	@NotNull private final Map<Long, SpectatorBroadcaster> broadcasters = new ConcurrentHashMap<>();
+
+	/**
+	 * The connections of the players waiting in the lobby.
+	 */
+	@NotNull private final Map<Player, Connection> joined = new ConcurrentHashMap<>();
+
+	/**
+	 * The connections by the name of their player. Only accessed from the selector thread.
+	 */
+	@NotNull private final Map<String, Connection> names = new HashMap<>();
+
+	/**
+	 * Whether or not the selector thread should keep running.
+	 */
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a new socket server bound to the provided address. Bind to port 0 to have a free port chosen.
+	 *
+	 * @param address The address to bind to.
+	 * @param tables  The server hosting the tables.
+	 * @param seats   The number of players at each table formed by the lobby.
+	 * @throws IOException When the server could not be bound.
+	 */
+	public SocketServer(@NotNull InetSocketAddress address, @NotNull TableServer tables, int seats) throws IOException
+	{
+		this.tables = tables;
+		this.lobby = new Lobby(tables, seats, DicePair::new, this::createHandlers);
+		this.selector = Selector.open();
+		this.serverChannel = ServerSocketChannel.open();
+		this.serverChannel.configureBlocking(false);
+		this.serverChannel.bind(address);
+		this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Returns the port the server is bound to.
+	 *
+	 * @return The port the server is bound to.
+	 * @throws IOException When the address could not be read.
+	 */
+	public int getPort() throws IOException
+	{
+		return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+	}
+
+	/**
+	 * Starts the selector thread.
+	 *
+	 * @return The selector thread.
+	 */
+	public Thread start()
+	{
+		Thread thread = new Thread(this, "pig-socket-server");
+		thread.setDaemon(true);
+		thread.start();
+
+		return thread;
+	}
+
+	/**
+	 * Runs the selector loop until the server is closed.
+	 */
+	@Override public void run()
+	{
+		try {
+			while (running) {
+				selector.select();
+				registerWrites();
+				closeRequested();
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handle(key);
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Selector failed.", e);
+		} finally {
+			closeAll();
+		}
+	}
+
+	/**
+	 * Handles the ready operations of the provided key.
+	 *
+	 * @param key The selected key.
+	 * @throws IOException When a new connection could not be accepted.
+	 */
+	private void handle(SelectionKey key) throws IOException
+	{
+		if (!key.isValid())
+			return;
+
+		if (key.isAcceptable()) {
+			accept();
+			return;
+		}
+
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (key.isReadable())
+				read(connection);
+			if (key.isValid() && key.isWritable() && connection.flush())
+				key.interestOps(SelectionKey.OP_READ);
+		} catch (IOException e) {
+			disconnect(connection);
+		}
+	}
+
+	/**
+	 * Accepts the pending connections.
+	 *
+	 * @throws IOException When a connection could not be accepted.
+	 */
+	private void accept() throws IOException
+	{
+		SocketChannel channel;
+		while ((channel = serverChannel.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+			SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+			key.attach(new Connection(this, channel, key, MAX_QUEUED));
+		}
+	}
+
+	/**
+	 * Reads the available bytes of the provided connection, handling every complete line.
+	 *
+	 * @param connection The connection.
+	 * @throws IOException When the connection closed or sent a line that is too long.
+	 */
+	private void read(Connection connection) throws IOException
+	{
+		ByteBuffer input = connection.input;
+		if (connection.channel.read(input) < 0)
+			throw new IOException("Connection closed.");
+
+		input.flip();
+		int start = input.position();
+		for (int i = start; i < input.limit(); i++) {
+			if (input.get(i) != '\n')
+				continue;
+
+			int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+			handleLine(connection, new String(input.array(), start, end - start, StandardCharsets.US_ASCII));
+			start = i + 1;
+		}
+
+		input.position(start);
+		input.compact();
+
+		if (!input.hasRemaining())
+			throw new IOException("Line too long.");
+	}
+
+	/**
+	 * Handles a line sent by the provided connection.
+	 *
+	 * @param connection The connection.
+	 * @param line       The line, without the line terminator.
+	 */
+	private void handleLine(Connection connection, String line)
+	{
+		String[] parts   = line.trim().split(" +");
+		String   command = parts[0].toUpperCase();
+
+		switch (command) {
+			case "JOIN":
+				join(connection, parts);
+				return;
+			case "WATCH":
+				watch(connection, parts);
+				return;
+			case "CONTINUE":
+			case "SAVE":
+			case "BET":
+				respond(connection, command, parts);
+				return;
+			case "QUIT":
+				disconnect(connection);
+				return;
+			default:
+				connection.send("ERROR Unknown command.");
+		}
+	}
+
+	/**
+	 * Queues the player of the connection in the lobby. Names are unique among the connected players.
+	 *
+	 * @param connection The connection.
+	 * @param parts      The parts of the JOIN line.
+	 */
+	private void join(Connection connection, String[] parts)
+	{
+		if (parts.length != 2) {
+			connection.send("ERROR Usage: JOIN name");
+			return;
+		}
+
+		if (connection.player != null) {
+			connection.send("ERROR Already joined.");
+			return;
+		}
+
+		String     name  = parts[1];
+		Connection owner = names.get(name);
+		if (owner != null && owner != connection) {
+			connection.send("ERROR Player name is not unique.");
+			return;
+		}
+
+		if (connection.name != null)
+			names.remove(connection.name);
+
+		names.put(name, connection);
+		connection.name = name;
+
+		HumanPlayer player = new HumanPlayer(name);
+		connection.player = player;
+		joined.put(player, connection);
+		connection.send("WAITING");
+
+		lobby.join(player).whenComplete((table, failure) -> {
+			if (failure != null) {
+				connection.send("ERROR " + failure.getMessage());
+				return;
+			}
+
+			long id = table.getId();
+			connection.table = table;
+			if (broadcasters.putIfAbsent(id, connection.broadcaster) == null)
+				table.getEnded().whenComplete((game, exception) -> broadcasters.remove(id));
+
+			connection.send("TABLE " + id);
+		});
+	}
+
+	/**
+	 * Creates the event handlers of a table opened by the lobby. Called from the lobby executor, before the table is
+	 * opened.
+	 *
+	 * @param players The players at the table.
+	 * @return The event handlers of the table.
+	 */
+	private List<GameEventHandler> createHandlers(List<Player> players)
+	{
+		SpectatorBroadcaster broadcaster = new SpectatorBroadcaster();
+		List<Connection>     connections = new ArrayList<>();
+		for (Player player : players) {
+			Connection connection = joined.remove(player);
+			if (connection == null)
+				continue;
+
+			connection.broadcaster = broadcaster;
+			broadcaster.subscribe(connection);
+			connections.add(connection);
+		}
+
+		List<GameEventHandler> handlers = new ArrayList<>();
+		handlers.add(new ConnectionEventHandler(connections));
+		handlers.add(broadcaster);
+
+		return handlers;
+	}
+
+	/**
+	 * Lets the connection watch the events of an open table.
+	 *
+	 * @param connection The connection.
+	 * @param parts      The parts of the WATCH line.
+	 */
+	private void watch(Connection connection, String[] parts)
+	{
+		SpectatorBroadcaster broadcaster = null;
+		try {
+			if (parts.length == 2)
+				broadcaster = broadcasters.get(Long.parseLong(parts[1]));
+		} catch (NumberFormatException e) {
+			// Reported below.
+		}
+
+		if (broadcaster == null) {
+			connection.send("ERROR No such table.");
+			return;
+		}
+
+		broadcaster.subscribe(connection);
+		connection.send("WATCHING " + parts[1]);
+	}
+
+	/**
+	 * Passes a decision of the provided connection to its table.
+	 *
+	 * @param connection The connection.
+	 * @param command    The decision.
+	 * @param parts      The parts of the decision line.
+	 */
+	private void respond(Connection connection, String command, String[] parts)
+	{
+		Table       table  = connection.table;
+		HumanPlayer player = connection.player;
+		if (table == null || player == null) {
+			connection.send("ERROR Not playing.");
+			return;
+		}
+
+		if (command.equals("CONTINUE")) {
+			table.respondContinue(player, connection.request);
+			return;
+		}
+
+		if (command.equals("SAVE")) {
+			table.respondSave(player, connection.request);
+			return;
+		}
+
+		try {
+			if (parts.length != 2)
+				throw new NumberFormatException();
+			table.respondBet(player, Integer.parseInt(parts[1]), connection.request).whenComplete((ignored, e) -> {
+				if (e != null)
+					rejectBet(connection, e);
+			});
+		} catch (NumberFormatException e) {
+			connection.send("ERROR Usage: BET amount");
+		} catch (NotEnoughPointsException | IllegalArgumentException e) {
+			rejectBet(connection, e);
+		}
+	}
+
+	/**
+	 * Tells the provided connection why its bet was rejected. Called from any thread.
+	 *
+	 * @param connection The connection.
+	 * @param e          The reason the bet was rejected.
+	 */
+	private void rejectBet(Connection connection, Throwable e)
+	{
+		if (e instanceof NotEnoughPointsException)
+			connection.send("ERROR Not enough points.");
+		else
+			connection.send("ERROR Cannot bet a negative amount of points.");
+	}
+
+	/**
+	 * Asks the selector thread to write the output of the provided connection. Called from any thread.
+	 *
+	 * @param connection The connection.
+	 */
+	void requestWrite(Connection connection)
+	{
+		writable.add(connection);
+		selector.wakeup();
+	}
+
+	/**
+	 * Asks the selector thread to close the provided connection. Called from any thread.
+	 *
+	 * @param connection The connection.
+	 */
+	void requestClose(Connection connection)
+	{
+		closable.add(connection);
+		selector.wakeup();
+	}
+
+	/**
+	 * Closes the connections that fell behind. Called from the selector thread.
+	 */
+	private void closeRequested()
+	{
+		Connection connection;
+		while ((connection = closable.poll()) != null)
+			disconnect(connection);
+	}
+
+	/**
+	 * Registers the connections with output for writing. Called from the selector thread.
+	 */
+	private void registerWrites()
+	{
+		Connection connection;
+		while ((connection = writable.poll()) != null)
+			if (connection.key.isValid())
+				connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+	}
+
+	/**
+	 * Closes the provided connection. A player at a table or in the lobby is left to the decision timeouts of the
+	 * table, and the broadcaster drops the connection with the next event.
+	 *
+	 * @param connection The connection.
+	 */
+	private void disconnect(Connection connection)
+	{
+		if (connection.name != null)
+			names.remove(connection.name);
+
+		connection.closed = true;
+		connection.key.cancel();
+		try {
+			connection.channel.close();
+		} catch (IOException e) {
+			// The connection is gone either way.
+		}
+	}
+
+	/**
+	 * Closes the server channel and every connection.
+	 */
+	private void closeAll()
+	{
+		for (SelectionKey key : selector.keys()) {
+			try {
+				key.channel().close();
+			} catch (IOException e) {
+				// Closing anyway.
+			}
+		}
+
+		try {
+			selector.close();
+		} catch (IOException e) {
+			// Closing anyway.
+		}
+	}
+
+	/**
+	 * Stops the selector thread, closing every connection.
+	 */
+	@Override public void close()
+	{
+		lobby.close();
+		running = false;
+		selector.wakeup();
+	}
+}
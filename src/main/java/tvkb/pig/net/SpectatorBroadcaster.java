@@ -0,0 +1,182 @@
+package tvkb.pig.net;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Fans the events of a table out to its subscribers. Each event is encoded once into a read-only buffer and every
+ * subscriber receives a duplicate of that buffer, so the cost of encoding does not depend on the number of
+ * subscribers. Subscribers that cannot keep up are dropped instead of slowing the table down.
+ */
+public class SpectatorBroadcaster implements GameEventHandler
+{
+
+	/**
+	 * The subscribers of the table.
+	 */
+	@NotNull private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Subscribes to the events of the table. Can be called from any thread.
+	 *
+	 * @param subscriber The subscriber.
+	 */
+	public void subscribe(@NotNull Subscriber subscriber)
+	{
+		subscribers.add(subscriber);
+	}
+
+	/**
+	 * Unsubscribes from the events of the table. Can be called from any thread.
+	 *
+	 * @param subscriber The subscriber.
+	 */
+	public void unsubscribe(@NotNull Subscriber subscriber)
+	{
+		subscribers.remove(subscriber);
+	}
+
+	/**
+	 * Returns the number of subscribers.
+	 *
+	 * @return The number of subscribers.
+	 */
+	public int getSubscriberCount()
+	{
+		return subscribers.size();
+	}
+
+	/**
+	 * Sends the provided event to every subscriber, dropping the subscribers that cannot keep up.
+	 *
+	 * @param event The encoded event.
+	 */
+	private void broadcast(ByteBuffer event)
+	{
+		for (Subscriber subscriber : subscribers)
+			if (!subscriber.offer(event.duplicate()))
+				subscribers.remove(subscriber);
+	}
+
+	/**
+	 * Called when a new game starts.
+	 *
+	 * @param game The new game instance.
+	 */
+	@Override public void onGameStart(Game game)
+	{
+		broadcast(EventEncoder.gameStart(game.getPlayers().collect(Collectors.toList())));
+	}
+
+	/**
+	 * Called when the game ends.
+	 *
+	 * @param game The game instance that just ended.
+	 */
+	@Override public void onGameEnd(Game game)
+	{
+		broadcast(EventEncoder.gameEnd(game.getWinners()));
+	}
+
+	/**
+	 * Called when a new round starts.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundStart(Game game)
+	{
+		broadcast(EventEncoder.keyword("ROUND_START"));
+	}
+
+	/**
+	 * Called when a round ends.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundEnd(Game game)
+	{
+		broadcast(EventEncoder.keyword("ROUND_END"));
+	}
+
+	/**
+	 * Called when a player rolled without resetting.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn it is.
+	 */
+	@Override public void onTurnStart(Game game, Player player)
+	{
+		broadcast(EventEncoder.player("ROLL", player, player.getLastRoll()));
+	}
+
+	/**
+	 * Called when the turn of a player ends.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn ended.
+	 */
+	@Override public void onTurnEnd(Game game, Player player)
+	{
+		broadcast(EventEncoder.player("TURN_END", player, player.getBankPoints()));
+	}
+
+	/**
+	 * Called when a player must make a game decision.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player to make the decision.
+	 */
+	@Override public void onDecisionRequest(Game game, Player player)
+	{
+		broadcast(EventEncoder.player("DECISION", player, player.getTurnPoints(), player.getBankPoints()));
+	}
+
+	/**
+	 * Called when the game has received a decision.
+	 *
+	 * @param game     The current game instance.
+	 * @param player   The player whose decision was received.
+	 * @param decision The decision that was made by the player.
+	 */
+	@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+	{
+		broadcast(EventEncoder.response(player, decision));
+	}
+
+	/**
+	 * Called when a player rolled two ones.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their bank.
+	 */
+	@Override public void onHardReset(Game game, Player player)
+	{
+		broadcast(EventEncoder.player("HARD_RESET", player));
+	}
+
+	/**
+	 * Called when a player rolled a single one.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their turn total.
+	 */
+	@Override public void onSoftReset(Game game, Player player)
+	{
+		broadcast(EventEncoder.player("SOFT_RESET", player));
+	}
+
+	/**
+	 * Called when an error occurs in the game.
+	 *
+	 * @param message The error message.
+	 */
+	@Override public void onError(String message)
+	{
+		broadcast(EventEncoder.error(message));
+	}
+}
@@ -0,0 +1,20 @@
+package tvkb.pig.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the encoded events of a table from a SpectatorBroadcaster.
+ */
+@FunctionalInterface
+public interface Subscriber
+{
+
+	/**
+	 * Offers an encoded event to the subscriber. Called from the thread playing the game, so it must not block. The
+	 * buffer is a read-only view of bytes shared with every other subscriber.
+	 *
+	 * @param event The encoded event.
+	 * @return False if the subscriber cannot keep up and should be unsubscribed.
+	 */
+	boolean offer(ByteBuffer event);
+}
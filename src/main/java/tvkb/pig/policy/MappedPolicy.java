@@ -0,0 +1,171 @@
+package tvkb.pig.policy;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.GameDecision;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Policy read directly from a memory mapped policy file written by PolicyFile. The table stays off the heap and is
+ * shared through the page cache by every process mapping the same file.
+ */
+public final class MappedPolicy
+{
+
+	/**
+	 * The policies mapped by this process, by their absolute path.
+	 */
+	private static final ConcurrentMap<Path, MappedPolicy> mapped = new ConcurrentHashMap<>();
+
+	/**
+	 * The decisions, by ordinal.
+	 */
+	private static final GameDecision[] DECISIONS = GameDecision.values();
+
+	/**
+	 * The mapped file.
+	 */
+	@NotNull private MappedByteBuffer buffer;
+
+	/**
+	 * The number of points needed to win.
+	 */
+	private int goal;
+
+	/**
+	 * The bet sizes, by index.
+	 */
+	@NotNull private int[] betSizes;
+
+	/**
+	 * The position of the first state in the file.
+	 */
+	private int offset;
+
+	/**
+	 * Returns the policy in the provided file, mapping the file on the first call for the file.
+	 *
+	 * @param file The policy file.
+	 * @return The policy in the provided file.
+	 * @throws IOException When the file could not be mapped.
+	 */
+	public static MappedPolicy open(@NotNull Path file) throws IOException
+	{
+		Path         key    = file.toAbsolutePath().normalize();
+		MappedPolicy policy = mapped.get(key);
+		if (policy != null)
+			return policy;
+
+		policy = new MappedPolicy(key);
+		MappedPolicy previous = mapped.putIfAbsent(key, policy);
+
+		return previous != null ? previous : policy;
+	}
+
+	/**
+	 * Returns the policy in the provided file, after checking that it was solved for the provided goal.
+	 *
+	 * @param file The policy file.
+	 * @param goal The number of points needed to win the games the policy is used in.
+	 * @return The policy in the provided file.
+	 * @throws IOException When the file could not be mapped, or the policy was solved for another goal.
+	 */
+	public static MappedPolicy open(@NotNull Path file, int goal) throws IOException
+	{
+		MappedPolicy policy = open(file);
+		if (policy.getGoal() != goal)
+			throw new IOException(String.format("%s was solved for a goal of %d, not %d.", file, policy.getGoal(), goal));
+
+		return policy;
+	}
+
+	/**
+	 * Maps the provided policy file.
+	 *
+	 * @param file The policy file.
+	 * @throws IOException When the file could not be mapped or is not a policy file.
+	 */
+	private MappedPolicy(@NotNull Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < PolicyFile.HEADER_SIZE || buffer.getInt(0) != PolicyFile.MAGIC)
+			throw new IOException(String.format("%s is not a policy file.", file));
+		if (buffer.getShort(4) != PolicyFile.VERSION)
+			throw new IOException(String.format("%s has unsupported version %d.", file, buffer.getShort(4)));
+
+		this.goal = buffer.getShort(6);
+		this.betSizes = new int[buffer.get(8)];
+		for (int i = 0; i < betSizes.length; i++)
+			betSizes[i] = buffer.get(PolicyFile.HEADER_SIZE + i);
+
+		this.offset = PolicyFile.HEADER_SIZE + betSizes.length;
+
+		if (buffer.limit() != offset + goal * goal * goal)
+			throw new IOException(String.format("%s is truncated.", file));
+	}
+
+	/**
+	 * Returns the state byte of the provided state, or -1 when saving wins the game.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The state byte of the provided state.
+	 */
+	private int state(int bank, int opponentBank, int turnPoints)
+	{
+		if (bank < 0 || turnPoints < 0 || bank + turnPoints >= goal)
+			return -1;
+
+		return buffer.get(offset + Policy.index(goal, bank, Math.min(opponentBank, goal - 1), turnPoints)) & 0xFF;
+	}
+
+	/**
+	 * Returns the decision to make in the provided state.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The decision to make in the provided state.
+	 */
+	public GameDecision getDecision(int bank, int opponentBank, int turnPoints)
+	{
+		int state = state(bank, opponentBank, turnPoints);
+
+		return state < 0 ? GameDecision.SAVE : DECISIONS[state & PolicyFile.DECISION_MASK];
+	}
+
+	/**
+	 * Returns the amount of points to bet in the provided state, zero unless the decision is BET.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The amount of points to bet in the provided state.
+	 */
+	public int getBet(int bank, int opponentBank, int turnPoints)
+	{
+		int state = state(bank, opponentBank, turnPoints);
+
+		return state < 0 ? 0 : betSizes[state >>> PolicyFile.BET_SHIFT];
+	}
+
+	/**
+	 * Returns the number of points needed to win.
+	 *
+	 * @return The number of points needed to win.
+	 */
+	public int getGoal()
+	{
+		return goal;
+	}
+}
@@ -0,0 +1,151 @@
+package tvkb.pig.policy;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.GameDecision;
+
+/**
+ * Decision table for two player games, indexed by the bank points of the deciding player, the bank points of the
+ * opponent and the turn points of the deciding player.
+ */
+public class Policy
+{
+
+	/**
+	 * The number of points needed to win.
+	 */
+	private int goal;
+
+	/**
+	 * The decision of every state, stored as the ordinal of the GameDecision.
+	 */
+	@NotNull private byte[] decisions;
+
+	/**
+	 * The bet of every state, zero unless the decision is BET.
+	 */
+	@NotNull private byte[] bets;
+
+	/**
+	 * The probability of winning for the player starting their turn, indexed by their bank and the bank of the opponent.
+	 */
+	@NotNull private double[] winProbabilities;
+
+	/**
+	 * Creates a new policy.
+	 *
+	 * @param goal             The number of points needed to win.
+	 * @param decisions        The decision of every state, stored as the ordinal of the GameDecision.
+	 * @param bets             The bet of every state.
+	 * @param winProbabilities The probability of winning for the player starting their turn.
+	 */
+	Policy(int goal, @NotNull byte[] decisions, @NotNull byte[] bets, @NotNull double[] winProbabilities)
+	{
+		this.goal = goal;
+		this.decisions = decisions;
+		this.bets = bets;
+		this.winProbabilities = winProbabilities;
+	}
+
+	/**
+	 * Returns the index of the provided state in the tables.
+	 *
+	 * @param goal         The number of points needed to win.
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The index of the provided state.
+	 */
+	static int index(int goal, int bank, int opponentBank, int turnPoints)
+	{
+		return (bank * goal + opponentBank) * goal + turnPoints;
+	}
+
+	/**
+	 * Returns true if the provided state lies outside of the table, in which case saving wins the game.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return True if the provided state lies outside of the table.
+	 */
+	private boolean isDecided(int bank, int opponentBank, int turnPoints)
+	{
+		return bank < 0 || turnPoints < 0 || bank + turnPoints >= goal;
+	}
+
+	/**
+	 * Returns the decision to make in the provided state.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The decision to make in the provided state.
+	 */
+	public GameDecision getDecision(int bank, int opponentBank, int turnPoints)
+	{
+		if (isDecided(bank, opponentBank, turnPoints))
+			return GameDecision.SAVE;
+
+		return GameDecision.values()[decisions[index(goal, bank, Math.min(opponentBank, goal - 1), turnPoints)]];
+	}
+
+	/**
+	 * Returns the amount of points to bet in the provided state, zero unless the decision is BET.
+	 *
+	 * @param bank         The bank points of the deciding player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the deciding player.
+	 * @return The amount of points to bet in the provided state.
+	 */
+	public int getBet(int bank, int opponentBank, int turnPoints)
+	{
+		if (isDecided(bank, opponentBank, turnPoints))
+			return 0;
+
+		return bets[index(goal, bank, Math.min(opponentBank, goal - 1), turnPoints)];
+	}
+
+	/**
+	 * Returns the probability of winning for a player starting their turn when playing by the policy.
+	 *
+	 * @param bank         The bank points of the player.
+	 * @param opponentBank The bank points of the opponent.
+	 * @return The probability of winning.
+	 */
+	public double getWinProbability(int bank, int opponentBank)
+	{
+		return winProbabilities[bank * goal + opponentBank];
+	}
+
+	/**
+	 * Returns the ordinal of the decision at the provided index of the table.
+	 *
+	 * @param index The index in the table.
+	 * @return The ordinal of the decision at the provided index.
+	 */
+	byte getDecisionAt(int index)
+	{
+		return decisions[index];
+	}
+
+	/**
+	 * Returns the bet at the provided index of the table.
+	 *
+	 * @param index The index in the table.
+	 * @return The bet at the provided index.
+	 */
+	byte getBetAt(int index)
+	{
+		return bets[index];
+	}
+
+	/**
+	 * Returns the number of points needed to win.
+	 *
+	 * @return The number of points needed to win.
+	 */
+	public int getGoal()
+	{
+		return goal;
+	}
+}
@@ -0,0 +1,105 @@
+package tvkb.pig.policy;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes policies to compact binary files that can be memory mapped by MappedPolicy.
+ * <p>
+ * The file starts with a header: the magic number, the version, the goal, the number of bet sizes and the bet sizes.
+ * The header is followed by one byte per state, in the order of Policy.index(). The lowest two bits of a state hold the
+ * ordinal of the decision, the upper six bits hold the index of the bet size.
+ */
+public final class PolicyFile
+{
+
+	/**
+	 * The magic number at the start of every policy file.
+	 */
+	static final int MAGIC = 0x50494750;
+
+	/**
+	 * The version of the file format.
+	 */
+	static final short VERSION = 1;
+
+	/**
+	 * The size of the header, without the bet sizes.
+	 */
+	static final int HEADER_SIZE = 9;
+
+	/**
+	 * Mask of the bits holding the decision in a state.
+	 */
+	static final int DECISION_MASK = 0x3;
+
+	/**
+	 * Offset of the bits holding the bet size index in a state.
+	 */
+	static final int BET_SHIFT = 2;
+
+	/**
+	 * The maximum number of distinct bet sizes, including bet size zero.
+	 */
+	static final int MAX_BET_SIZES = 64;
+
+	/**
+	 * Policy files are written through the static write method.
+	 */
+	private PolicyFile()
+	{
+	}
+
+	/**
+	 * Writes the provided policy to the provided file.
+	 *
+	 * @param policy The policy to write.
+	 * @param file   The file to write to.
+	 * @throws IOException              When the file could not be written.
+	 * @throws IllegalArgumentException When the policy bets more than 127 points, or has too many distinct bet sizes.
+	 */
+	public static void write(@NotNull Policy policy, @NotNull Path file) throws IOException
+	{
+		int goal   = policy.getGoal();
+		int states = goal * goal * goal;
+
+		// Bet size zero is always at index zero, so states without a bet need no lookup.
+		int[] betSizes = new int[MAX_BET_SIZES];
+		int   count    = 1;
+		int[] indices  = new int[Byte.MAX_VALUE + 1];
+		for (int i = 0; i < states; i++) {
+			int bet = policy.getBetAt(i);
+			if (bet < 0 || bet > Byte.MAX_VALUE)
+				throw new IllegalArgumentException("Policy bets " + bet + " points, bet sizes must be between 0 and 127.");
+			if (bet != 0 && indices[bet] == 0) {
+				if (count == MAX_BET_SIZES)
+					throw new IllegalArgumentException("Policy has too many distinct bet sizes.");
+				betSizes[count] = bet;
+				indices[bet] = count++;
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count + states);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) goal);
+		buffer.put((byte) count);
+		for (int i = 0; i < count; i++)
+			buffer.put((byte) betSizes[i]);
+
+		for (int i = 0; i < states; i++)
+			buffer.put((byte) (policy.getDecisionAt(i) | indices[policy.getBetAt(i)] << BET_SHIFT));
+
+		buffer.flip();
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+}
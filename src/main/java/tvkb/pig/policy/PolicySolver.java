@@ -0,0 +1,358 @@
+package tvkb.pig.policy;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.DiceOutcome;
+import tvkb.pig.Game;
+import tvkb.pig.GameDecision;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the policy maximising the probability of winning a two player game with the DicePair rules, using value
+ * iteration. The sweeps are split by the bank of the deciding player and run on a fork/join pool.
+ * <p>
+ * The model differs from the Game in two places: the game is won as soon as a player can save the goal, instead of at
+ * the end of the round, and a bet that is still in the pot when the turn ends on a reset is lost.
+ */
+public class PolicySolver
+{
+
+	/**
+	 * Solves the policy with the default bet sizes and prints the win probability of the starting player.
+	 *
+	 * @param args Optionally the file to write the policy to.
+	 * @throws IOException When the policy file could not be written.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		PolicySolver solver = new PolicySolver(Game.WINNING_POINTS, new int[]{1, 2, 5, 10, 20, 50});
+
+		long   start  = System.nanoTime();
+		Policy policy = solver.solve();
+		long   time   = System.nanoTime() - start;
+
+		System.out.println(String.format("Converged after %d sweeps in %d ms.", solver.getSweeps(), time / 1_000_000));
+		System.out.println(String.format("Starting player wins with probability %.6f.", policy.getWinProbability(0, 0)));
+
+		if (args.length > 0) {
+			PolicyFile.write(policy, Paths.get(args[0]));
+			System.out.println(String.format("Policy written to %s.", args[0]));
+		}
+	}
+
+	/**
+	 * The largest change in value allowed in the final sweep.
+	 */
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The maximum number of sweeps to perform.
+	 */
+	private static final int MAX_SWEEPS = 10_000;
+
+	/**
+	 * The number of banks solved by a single leaf task.
+	 */
+	private static final int THRESHOLD = 4;
+
+	/**
+	 * The pool to run the sweeps on.
+	 */
+	@NotNull private ForkJoinPool pool;
+
+	/**
+	 * The number of points needed to win.
+	 */
+	private int goal;
+
+	/**
+	 * The amounts of points that can be bet.
+	 */
+	@NotNull private int[] betSizes;
+
+	/**
+	 * The distinct packed outcomes of a roll, without faces.
+	 */
+	@NotNull private int[] outcomes;
+
+	/**
+	 * The probability of each of the distinct outcomes.
+	 */
+	@NotNull private double[] probabilities;
+
+	/**
+	 * The value of every state from the previous sweep.
+	 */
+	private double[] values;
+
+	/**
+	 * The value of every state computed by the current sweep.
+	 */
+	private double[] next;
+
+	/**
+	 * The value of starting a turn, indexed by the bank of the player and the bank of the opponent.
+	 */
+	private double[] turnValues;
+
+	/**
+	 * The decision of every state.
+	 */
+	private byte[] decisions;
+
+	/**
+	 * The bet of every state.
+	 */
+	private byte[] bets;
+
+	/**
+	 * The number of sweeps performed by the last solve.
+	 */
+	private int sweeps = 0;
+
+	/**
+	 * Creates a new solver running on the common fork/join pool.
+	 *
+	 * @param goal     The number of points needed to win.
+	 * @param betSizes The amounts of points that can be bet.
+	 */
+	public PolicySolver(int goal, @NotNull int[] betSizes)
+	{
+		this(ForkJoinPool.commonPool(), goal, betSizes);
+	}
+
+	/**
+	 * Creates a new solver.
+	 *
+	 * @param pool     The pool to run the sweeps on.
+	 * @param goal     The number of points needed to win, at most 127.
+	 * @param betSizes The amounts of points that can be bet, each between 1 and 127, at most 63 sizes.
+	 * @throws IllegalArgumentException When the goal or the bet sizes cannot be stored in a policy file.
+	 */
+	public PolicySolver(@NotNull ForkJoinPool pool, int goal, @NotNull int[] betSizes)
+	{
+		if (goal < 1 || goal > Byte.MAX_VALUE)
+			throw new IllegalArgumentException("Goal must be between 1 and 127.");
+		if (betSizes.length >= PolicyFile.MAX_BET_SIZES)
+			throw new IllegalArgumentException("At most " + (PolicyFile.MAX_BET_SIZES - 1) + " bet sizes are supported.");
+		for (int bet : betSizes)
+			if (bet < 1 || bet > Byte.MAX_VALUE)
+				throw new IllegalArgumentException("Bet sizes must be between 1 and 127, was " + bet + ".");
+
+		this.pool = pool;
+		this.goal = goal;
+		this.betSizes = betSizes;
+
+		// Collapse the 36 rolls into the outcomes that play differently.
+		int   mask   = DiceOutcome.SUM_MASK | DiceOutcome.SOFT_RESET | DiceOutcome.HARD_RESET | DiceOutcome.WINS_BET;
+		int[] counts = new int[mask + 1];
+		for (int i = 0; i < 36; i++)
+			counts[DiceOutcome.ofIndex(i) & mask]++;
+
+		int distinct = 0;
+		for (int count : counts)
+			if (count > 0)
+				distinct++;
+
+		this.outcomes = new int[distinct];
+		this.probabilities = new double[distinct];
+		for (int outcome = 0, i = 0; outcome <= mask; outcome++) {
+			if (counts[outcome] > 0) {
+				outcomes[i] = outcome;
+				probabilities[i] = counts[outcome] / 36.0;
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Runs value iteration until the values converge and returns the resulting policy.
+	 *
+	 * @return The resulting policy.
+	 */
+	public Policy solve()
+	{
+		values = new double[goal * goal * goal];
+		next = new double[goal * goal * goal];
+		turnValues = new double[goal * goal];
+		decisions = new byte[goal * goal * goal];
+		bets = new byte[goal * goal * goal];
+
+		for (sweeps = 1; sweeps <= MAX_SWEEPS; sweeps++) {
+			updateTurnValues();
+			double delta = pool.invoke(new SweepTask(0, goal));
+
+			double[] swap = values;
+			values = next;
+			next = swap;
+
+			if (delta < TOLERANCE)
+				break;
+		}
+
+		updateTurnValues();
+		Policy policy = new Policy(goal, decisions, bets, turnValues);
+
+		values = next = turnValues = null;
+		decisions = bets = null;
+
+		return policy;
+	}
+
+	/**
+	 * Returns the number of sweeps performed by the last solve.
+	 *
+	 * @return The number of sweeps performed by the last solve.
+	 */
+	public int getSweeps()
+	{
+		return sweeps;
+	}
+
+	/**
+	 * Computes the value of starting a turn for every pair of banks from the current values.
+	 */
+	private void updateTurnValues()
+	{
+		for (int bank = 0; bank < goal; bank++)
+			for (int opponentBank = 0; opponentBank < goal; opponentBank++)
+				turnValues[bank * goal + opponentBank] = rollValue(bank, opponentBank, 0, 0);
+	}
+
+	/**
+	 * Returns the value of rolling the dice.
+	 *
+	 * @param bank         The bank points of the rolling player, after the bet has been taken out.
+	 * @param opponentBank The bank points of the opponent.
+	 * @param turnPoints   The turn points of the rolling player.
+	 * @param bet          The points in the pot.
+	 * @return The value of rolling the dice.
+	 */
+	private double rollValue(int bank, int opponentBank, int turnPoints, int bet)
+	{
+		double value = 0;
+
+		for (int i = 0; i < outcomes.length; i++) {
+			int outcome = outcomes[i];
+
+			if (DiceOutcome.forcesHardReset(outcome)) {
+				value += probabilities[i] * (1 - turnValues[opponentBank * goal]);
+				continue;
+			}
+
+			if (DiceOutcome.forcesSoftReset(outcome)) {
+				value += probabilities[i] * (1 - turnValues[opponentBank * goal + bank]);
+				continue;
+			}
+
+			int nextBank = DiceOutcome.winsBet(outcome) ? bank + bet * 2 : bank;
+			int nextTurn = turnPoints + DiceOutcome.sum(outcome);
+			value += probabilities[i] * (nextBank + nextTurn >= goal
+					? 1
+					: values[Policy.index(goal, nextBank, opponentBank, nextTurn)]);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Computes the best decision for every state of the provided bank.
+	 *
+	 * @param bank The bank points of the deciding player.
+	 * @return The largest change in value.
+	 */
+	private double sweep(int bank)
+	{
+		double delta = 0;
+
+		for (int opponentBank = 0; opponentBank < goal; opponentBank++) {
+			for (int turnPoints = 0; bank + turnPoints < goal; turnPoints++) {
+				int index = Policy.index(goal, bank, opponentBank, turnPoints);
+
+				double best     = 1 - turnValues[opponentBank * goal + bank + turnPoints];
+				byte   decision = (byte) GameDecision.SAVE.ordinal();
+				byte   bet      = 0;
+
+				double value = rollValue(bank, opponentBank, turnPoints, 0);
+				if (value > best) {
+					best = value;
+					decision = (byte) GameDecision.CONTINUE.ordinal();
+				}
+
+				for (int size : betSizes) {
+					if (size > bank)
+						continue;
+
+					value = rollValue(bank - size, opponentBank, turnPoints, size);
+					if (value > best) {
+						best = value;
+						decision = (byte) GameDecision.BET.ordinal();
+						bet = (byte) size;
+					}
+				}
+
+				delta = Math.max(delta, Math.abs(best - values[index]));
+				next[index] = best;
+				decisions[index] = decision;
+				bets[index] = bet;
+			}
+		}
+
+		return delta;
+	}
+
+	/**
+	 * Fork/join task sweeping a range of banks.
+	 */
+	private class SweepTask extends RecursiveTask<Double>
+	{
+
+		/**
+		 * The first bank to sweep.
+		 */
+		private int from;
+
+		/**
+		 * The bank after the last bank to sweep.
+		 */
+		private int to;
+
+		/**
+		 * Creates a new sweep task.
+		 *
+		 * @param from The first bank to sweep.
+		 * @param to   The bank after the last bank to sweep.
+		 */
+		SweepTask(int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Sweeps the banks, splitting the range when it is larger than the threshold.
+		 *
+		 * @return The largest change in value.
+		 */
+		@Override protected Double compute()
+		{
+			if (to - from <= THRESHOLD) {
+				double delta = 0;
+				for (int bank = from; bank < to; bank++)
+					delta = Math.max(delta, sweep(bank));
+
+				return delta;
+			}
+
+			int       middle = (from + to) / 2;
+			SweepTask left   = new SweepTask(from, middle);
+			left.fork();
+			double right = new SweepTask(middle, to).compute();
+
+			return Math.max(right, left.join());
+		}
+	}
+}
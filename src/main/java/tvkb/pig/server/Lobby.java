@@ -0,0 +1,289 @@
+package tvkb.pig.server;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Dice;
+import tvkb.pig.GameEventHandler;
+import tvkb.pig.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Seats queued players at tables of a fixed size. Players are queued on one of several stripes, so concurrent joins
+ * rarely touch the same queue, and the join that completes a table claims every complete table of its stripe at once.
+ * The claimed tables are opened and started as a single batch on the executor. A periodic sweep seats the players
+ * left waiting on different stripes. Closing the lobby fails the players still waiting.
+ */
+public class Lobby implements AutoCloseable
+{
+
+	/**
+	 * The default time between two sweeps, in milliseconds.
+	 */
+	public static final long DEFAULT_SWEEP_INTERVAL = 100;
+
+	/**
+	 * The server hosting the tables.
+	 */
+	@NotNull private final TableServer server;
+
+	/**
+	 * The number of players at each table.
+	 */
+	private final int seats;
+
+	/**
+	 * Creates the dice of each table.
+	 */
+	@NotNull private final Supplier<Dice> dice;
+
+	/**
+	 * Creates the event handlers of each table from its players.
+	 */
+	@NotNull private final Function<List<Player>, List<GameEventHandler>> handlers;
+
+	/**
+	 * The executor opening and starting the batches of tables.
+	 */
+	@NotNull private final Executor executor;
+
+	/**
+	 * The queued players of each stripe.
+	 */
+	@NotNull private final Queue<Entry>[] stripes;
+
+	/**
+	 * The number of unclaimed players of each stripe. A player is counted after being queued, so a claim never finds
+	 * the queue short.
+	 */
+	@NotNull private final AtomicInteger[] sizes;
+
+	/**
+	 * The sweep seating the players waiting on different stripes.
+	 */
+	@NotNull private final ScheduledFuture<?> sweep;
+
+	/**
+	 * Whether or not the lobby was closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new lobby using the common fork/join pool and a sweep every DEFAULT_SWEEP_INTERVAL milliseconds.
+	 *
+	 * @param server   The server hosting the tables.
+	 * @param seats    The number of players at each table.
+	 * @param dice     Creates the dice of each table.
+	 * @param handlers Creates the event handlers of each table from its players.
+	 */
+	public Lobby(@NotNull TableServer server, int seats, @NotNull Supplier<Dice> dice, @NotNull Function<List<Player>, List<GameEventHandler>> handlers)
+	{
+		this(server, seats, dice, handlers, ForkJoinPool.commonPool(), server.getScheduler(), DEFAULT_SWEEP_INTERVAL);
+	}
+
+	/**
+	 * Creates a new lobby.
+	 *
+	 * @param server        The server hosting the tables.
+	 * @param seats         The number of players at each table.
+	 * @param dice          Creates the dice of each table.
+	 * @param handlers      Creates the event handlers of each table from its players.
+	 * @param executor      The executor opening and starting the batches of tables.
+	 * @param scheduler     The scheduler running the sweeps.
+	 * @param sweepInterval The time between two sweeps, in milliseconds.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public Lobby(@NotNull TableServer server, int seats, @NotNull Supplier<Dice> dice, @NotNull Function<List<Player>, List<GameEventHandler>> handlers, @NotNull Executor executor, @NotNull ScheduledExecutorService scheduler, long sweepInterval)
+	{
+		if (seats < 1)
+			throw new IllegalArgumentException("A table needs at least one seat.");
+
+		this.server = server;
+		this.seats = seats;
+		this.dice = dice;
+		this.handlers = handlers;
+		this.executor = executor;
+
+		int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+		this.stripes = new Queue[stripeCount];
+		this.sizes = new AtomicInteger[stripeCount];
+		for (int stripe = 0; stripe < stripeCount; stripe++) {
+			stripes[stripe] = new ConcurrentLinkedQueue<>();
+			sizes[stripe] = new AtomicInteger();
+		}
+
+		this.sweep = scheduler.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Queues the provided player. Can be called from any thread.
+	 *
+	 * @param player The player.
+	 * @return Completed with the table of the player once it is opened, right before its game starts. A game that cannot
+	 * start completes Table.getEnded() exceptionally. Completed exceptionally with an IllegalStateException when the
+	 * lobby is closed before the player is seated.
+	 */
+	public CompletableFuture<Table> join(@NotNull Player player)
+	{
+		Entry entry = new Entry(player);
+		if (closed) {
+			entry.table.completeExceptionally(new IllegalStateException("Lobby is closed."));
+			return entry.table;
+		}
+
+		int stripe = ThreadLocalRandom.current().nextInt() & (stripes.length - 1);
+		stripes[stripe].add(entry);
+		sizes[stripe].incrementAndGet();
+
+		// A join racing with close() may have been queued after the stripe was drained, so it drains the stripe again.
+		if (closed)
+			fail(stripe);
+		else
+			claim(stripe);
+
+		return entry.table;
+	}
+
+	/**
+	 * Claims every complete table of the provided stripe and hands them to the executor as one batch.
+	 *
+	 * @param stripe The stripe.
+	 */
+	private void claim(int stripe)
+	{
+		AtomicInteger size = sizes[stripe];
+		int           available;
+		int           tables;
+
+		do {
+			available = size.get();
+			tables = available / seats;
+			if (tables == 0)
+				return;
+		} while (!size.compareAndSet(available, available - tables * seats));
+
+		List<Entry> claimed = new ArrayList<>(tables * seats);
+		for (int i = 0; i < tables * seats; i++)
+			claimed.add(stripes[stripe].poll());
+
+		executor.execute(() -> open(claimed));
+	}
+
+	/**
+	 * Seats the players waiting on different stripes. Players that do not fill a table are queued on the first stripe.
+	 */
+	public void sweep()
+	{
+		List<Entry> claimed = new ArrayList<>();
+		for (int stripe = 0; stripe < stripes.length; stripe++) {
+			int available = sizes[stripe].getAndSet(0);
+			for (int i = 0; i < available; i++)
+				claimed.add(stripes[stripe].poll());
+		}
+
+		int seated = claimed.size() - claimed.size() % seats;
+		for (Entry entry : claimed.subList(seated, claimed.size())) {
+			stripes[0].add(entry);
+			sizes[0].incrementAndGet();
+		}
+
+		if (closed)
+			fail(0);
+
+		if (seated > 0) {
+			List<Entry> batch = new ArrayList<>(claimed.subList(0, seated));
+			executor.execute(() -> open(batch));
+		}
+	}
+
+	/**
+	 * Opens and starts a table for each consecutive group of players in the provided batch.
+	 *
+	 * @param batch The claimed players, a multiple of the number of seats.
+	 */
+	private void open(List<Entry> batch)
+	{
+		for (int first = 0; first < batch.size(); first += seats) {
+			List<Entry>  entries = batch.subList(first, first + seats);
+			List<Player> players = new ArrayList<>(seats);
+			for (Entry entry : entries)
+				players.add(entry.player);
+
+			Table table = server.open(dice.get(), handlers.apply(players), players);
+			for (Entry entry : entries)
+				entry.table.complete(table);
+
+			table.start();
+		}
+	}
+
+	/**
+	 * Returns the number of players waiting for a table.
+	 *
+	 * @return The number of players waiting for a table.
+	 */
+	public int getWaitingCount()
+	{
+		int waiting = 0;
+		for (AtomicInteger size : sizes)
+			waiting += size.get();
+
+		return waiting;
+	}
+
+	/**
+	 * Fails the players waiting on the provided stripe, as the lobby is closed.
+	 *
+	 * @param stripe The stripe.
+	 */
+	private void fail(int stripe)
+	{
+		int available = sizes[stripe].getAndSet(0);
+		for (int i = 0; i < available; i++)
+			stripes[stripe].poll().table.completeExceptionally(new IllegalStateException("Lobby is closed."));
+	}
+
+	/**
+	 * Stops the sweeps and fails the players still waiting. Later joins fail right away. Tables claimed before the lobby
+	 * was closed are still opened.
+	 */
+	@Override public void close()
+	{
+		closed = true;
+		sweep.cancel(false);
+		for (int stripe = 0; stripe < stripes.length; stripe++)
+			fail(stripe);
+	}
+
+	/**
+	 * A queued player.
+	 */
+	private static final class Entry
+	{
+
+		/**
+		 * The player.
+		 */
+		@NotNull final Player player;
+
+		/**
+		 * Completed with the table of the player.
+		 */
+		@NotNull final CompletableFuture<Table> table = new CompletableFuture<>();
+
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param player The player.
+		 */
+		Entry(@NotNull Player player)
+		{
+			this.player = player;
+		}
+	}
+}
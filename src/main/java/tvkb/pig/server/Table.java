@@ -0,0 +1,285 @@
+package tvkb.pig.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single game hosted by a TableServer. Commands are handed to the shared executor, so callers never end up playing
+ * the game on their own thread, and the game runs them one at a time through its own mailbox. No thread is held while
+ * waiting for a human decision. Decisions that do not arrive within the timeout are answered with SAVE.
+ */
+public class Table
+{
+
+	/**
+	 * The id of the table in its server.
+	 */
+	private long id;
+
+	/**
+	 * The game played at the table.
+	 */
+	@NotNull private Game game;
+
+	/**
+	 * The executor running the commands against the game.
+	 */
+	@NotNull private Executor executor;
+
+	/**
+	 * The scheduler of the decision timeouts.
+	 */
+	@NotNull private ScheduledExecutorService scheduler;
+
+	/**
+	 * The time players get to make a decision, in milliseconds.
+	 */
+	private long decisionTimeout;
+
+	/**
+	 * Completed when the game ended.
+	 */
+	@NotNull private CompletableFuture<Game> ended = new CompletableFuture<>();
+
+	/**
+	 * The timeout of the current decision request, null when no decision is requested. Only used by the thread
+	 * playing the game.
+	 */
+	@Nullable private ScheduledFuture<?> timeout;
+
+	/**
+	 * Creates a new table.
+	 *
+	 * @param id              The id of the table in its server.
+	 * @param dice            The dice to play the game with.
+	 * @param eventHandlers   The event handlers of the game.
+	 * @param players         The players in the game.
+	 * @param executor        The executor running the commands against the game.
+	 * @param scheduler       The scheduler of the decision timeouts.
+	 * @param decisionTimeout The time players get to make a decision, in milliseconds.
+	 */
+	Table(long id, @NotNull Dice dice, @NotNull List<GameEventHandler> eventHandlers, @NotNull List<Player> players, @NotNull Executor executor, @NotNull ScheduledExecutorService scheduler, long decisionTimeout)
+	{
+		List<GameEventHandler> handlers = new ArrayList<>(eventHandlers);
+		handlers.add(new TableEventHandler());
+
+		this.id = id;
+		this.game = new Game(dice, handlers, players);
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.decisionTimeout = decisionTimeout;
+	}
+
+	/**
+	 * Starts the game.
+	 *
+	 * @return Completed when the game started, or exceptionally with the GameStartException.
+	 */
+	public CompletableFuture<Void> start()
+	{
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				game.start();
+				future.complete(null);
+			} catch (GameStartException e) {
+				future.completeExceptionally(e);
+				ended.completeExceptionally(e);
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Responds to a decision request with continue. Stale and duplicate decisions are dropped by the game.
+	 *
+	 * @param player  The player who made the decision.
+	 * @param request The number of the decision request, see Game.getDecisionRequest().
+	 */
+	public void respondContinue(@NotNull Player player, long request)
+	{
+		executor.execute(() -> game.respondContinue(player, request));
+	}
+
+	/**
+	 * Responds to a decision request with save. Stale and duplicate decisions are dropped by the game.
+	 *
+	 * @param player  The player who made the decision.
+	 * @param request The number of the decision request, see Game.getDecisionRequest().
+	 */
+	public void respondSave(@NotNull Player player, long request)
+	{
+		executor.execute(() -> game.respondSave(player, request));
+	}
+
+	/**
+	 * Responds to a decision request with bet. Stale and duplicate decisions are dropped by the game.
+	 *
+	 * @param player  The player who made the decision.
+	 * @param bet     The amount of points the player wants to bet.
+	 * @param request The number of the decision request, see Game.getDecisionRequest().
+	 * @return Completed when the bet was passed to the game, or exceptionally with the NotEnoughPointsException when the
+	 * points of the player changed before the bet reached the game.
+	 * @throws NotEnoughPointsException If the player doesn't have enough points to bet.
+	 * @throws IllegalArgumentException If the provided amount is negative.
+	 */
+	public CompletableFuture<Void> respondBet(@NotNull Player player, int bet, long request) throws NotEnoughPointsException, IllegalArgumentException
+	{
+		player.ensureCanBet(bet);
+
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				game.respondBet(player, bet, request);
+				future.complete(null);
+			} catch (NotEnoughPointsException | IllegalArgumentException e) {
+				future.completeExceptionally(e);
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Returns the id of the table in its server.
+	 *
+	 * @return The id of the table in its server.
+	 */
+	public long getId()
+	{
+		return id;
+	}
+
+	/**
+	 * Returns the game played at the table. The game must only be read from event handlers of the game.
+	 *
+	 * @return The game played at the table.
+	 */
+	public Game getGame()
+	{
+		return game;
+	}
+
+	/**
+	 * Returns a future completed with the game when it ended.
+	 *
+	 * @return A future completed with the game when it ended.
+	 */
+	public CompletableFuture<Game> getEnded()
+	{
+		return ended;
+	}
+
+	/**
+	 * Cancels the timeout of the current decision request, if any.
+	 */
+	private void cancelTimeout()
+	{
+		if (timeout != null) {
+			timeout.cancel(false);
+			timeout = null;
+		}
+	}
+
+	/**
+	 * Event handler of the table itself, scheduling and cancelling the timeouts of the decisions and completing the
+	 * ended future.
+	 */
+	private class TableEventHandler implements GameEventHandler
+	{
+
+		/**
+		 * Returns the types of events the table listens to.
+		 *
+		 * @return The types of events the table listens to.
+		 */
+		@Override public Set<GameEvent> getSubscriptions()
+		{
+			return EnumSet.of(GameEvent.GAME_END, GameEvent.DECISION_REQUEST, GameEvent.DECISION_RESPONSE);
+		}
+
+		/**
+		 * Called when a player must make a game decision. Schedules the timeout of the decision, which is skipped when
+		 * the decision was made in the meantime.
+		 *
+		 * @param game   The current game instance.
+		 * @param player The player to make the decision.
+		 */
+		@Override public void onDecisionRequest(Game game, Player player)
+		{
+			long request = game.getDecisionRequest();
+			cancelTimeout();
+			timeout = scheduler.schedule(() -> {
+				if (game.getDecisionRequest() == request)
+					respondSave(player, request);
+			}, decisionTimeout, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * Called when a player made a game decision. Cancels the timeout of the decision.
+		 *
+		 * @param game     The current game instance.
+		 * @param player   The player who made the decision.
+		 * @param decision The decision that was made.
+		 */
+		@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+		{
+			cancelTimeout();
+		}
+
+		/**
+		 * Called when the game ends.
+		 *
+		 * @param game The game instance that just ended.
+		 */
+		@Override public void onGameEnd(Game game)
+		{
+			cancelTimeout();
+			ended.complete(game);
+		}
+
+		@Override public void onGameStart(Game game)
+		{
+		}
+
+		@Override public void onRoundStart(Game game)
+		{
+		}
+
+		@Override public void onRoundEnd(Game game)
+		{
+		}
+
+		@Override public void onTurnStart(Game game, Player player)
+		{
+		}
+
+		@Override public void onTurnEnd(Game game, Player player)
+		{
+		}
+
+		@Override public void onHardReset(Game game, Player player)
+		{
+		}
+
+		@Override public void onSoftReset(Game game, Player player)
+		{
+		}
+
+		@Override public void onError(String message)
+		{
+		}
+	}
+}
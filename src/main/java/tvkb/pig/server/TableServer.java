@@ -0,0 +1,137 @@
+package tvkb.pig.server;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.Dice;
+import tvkb.pig.GameEventHandler;
+import tvkb.pig.Player;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many concurrent tables in a single JVM. The tables share a work-stealing executor, which only runs a table
+ * while it has commands to process, and a single scheduler for the decision timeouts. A table waiting for a human
+ * decision holds no thread, so the number of tables is only limited by memory.
+ */
+public class TableServer implements AutoCloseable
+{
+
+	/**
+	 * The default time players get to make a decision, in milliseconds.
+	 */
+	public static final long DEFAULT_DECISION_TIMEOUT = 30_000;
+
+	/**
+	 * The executor running the mailboxes of the tables.
+	 */
+	@NotNull private ExecutorService executor;
+
+	/**
+	 * The scheduler of the decision timeouts.
+	 */
+	@NotNull private ScheduledExecutorService scheduler;
+
+	/**
+	 * The time players get to make a decision, in milliseconds.
+	 */
+	private long decisionTimeout;
+
+	/**
+	 * The open tables, by id.
+	 */
+	@NotNull private ConcurrentMap<Long, Table> tables = new ConcurrentHashMap<>();
+
+	/**
+	 * The id of the last opened table.
+	 */
+	@NotNull private AtomicLong lastId = new AtomicLong();
+
+	/**
+	 * Creates a new server with a work-stealing executor using all processors.
+	 */
+	public TableServer()
+	{
+		this(Executors.newWorkStealingPool(), DEFAULT_DECISION_TIMEOUT);
+	}
+
+	/**
+	 * Creates a new server.
+	 *
+	 * @param executor        The executor running the mailboxes of the tables.
+	 * @param decisionTimeout The time players get to make a decision, in milliseconds.
+	 */
+	public TableServer(@NotNull ExecutorService executor, long decisionTimeout)
+	{
+		this.executor = executor;
+		this.decisionTimeout = decisionTimeout;
+
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "table-server-timeouts");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.setRemoveOnCancelPolicy(true);
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Opens a new table. The table is closed automatically when its game ends.
+	 *
+	 * @param dice          The dice to play the game with.
+	 * @param eventHandlers The event handlers of the game.
+	 * @param players       The players in the game.
+	 * @return The new table, not started yet.
+	 */
+	public Table open(@NotNull Dice dice, @NotNull List<GameEventHandler> eventHandlers, @NotNull List<Player> players)
+	{
+		long  id    = lastId.incrementAndGet();
+		Table table = new Table(id, dice, eventHandlers, players, executor, scheduler, decisionTimeout);
+
+		tables.put(id, table);
+		table.getEnded().whenComplete((game, exception) -> tables.remove(id));
+
+		return table;
+	}
+
+	/**
+	 * Returns the open table with the provided id.
+	 *
+	 * @param id The id of the table.
+	 * @return The open table with the provided id, null if there is none.
+	 */
+	@Nullable public Table getTable(long id)
+	{
+		return tables.get(id);
+	}
+
+	/**
+	 * Returns the scheduler of the decision timeouts, shared with other periodic tasks of the server.
+	 *
+	 * @return The scheduler of the decision timeouts.
+	 */
+	public ScheduledExecutorService getScheduler()
+	{
+		return scheduler;
+	}
+
+	/**
+	 * Returns the number of open tables.
+	 *
+	 * @return The number of open tables.
+	 */
+	public int getTableCount()
+	{
+		return tables.size();
+	}
+
+	/**
+	 * Stops the executor and the scheduler. Tables still waiting for decisions are abandoned.
+	 */
+	@Override public void close()
+	{
+		scheduler.shutdownNow();
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,425 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Dice;
+import tvkb.pig.DiceOutcome;
+import tvkb.pig.Game;
+import tvkb.pig.GameDecision;
+import tvkb.pig.Player;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Game engine for bulk simulation. Plays by the same rules as the Game and Player classes, but keeps the state of the
+ * players in parallel arrays indexed by seat. A game allocates nothing once constructed, so the same instance can be
+ * played over and over again.
+ */
+public final class ArrayGame
+{
+
+	/**
+	 * The number of points a player must reach for the game to end.
+	 */
+	public static final int WINNING_POINTS = 100;
+
+	/**
+	 * The dice to play the game with.
+	 */
+	@NotNull private Dice dice;
+
+	/**
+	 * The strategies of the seats.
+	 */
+	@NotNull private Strategy[] strategies;
+
+	/**
+	 * The turn points of the seats.
+	 */
+	@NotNull private int[] turnPoints;
+
+	/**
+	 * The bank points of the seats.
+	 */
+	@NotNull private int[] bankPoints;
+
+	/**
+	 * The amount of points in the betting pot of the seats.
+	 */
+	@NotNull private int[] currentBet;
+
+	/**
+	 * The last roll of the seats.
+	 */
+	@NotNull private int[] lastRoll;
+
+	/**
+	 * The seat currently playing.
+	 */
+	private int currentSeat = 0;
+
+	/**
+	 * The number of completed rounds.
+	 */
+	private int rounds = 0;
+
+	/**
+	 * The number of hard resets in the game.
+	 */
+	private int hardResets = 0;
+
+	/**
+	 * The number of soft resets in the game.
+	 */
+	private int softResets = 0;
+
+	/**
+	 * Creates a new array backed game.
+	 *
+	 * @param dice       The dice to play the game with.
+	 * @param strategies The strategies of the seats.
+	 */
+	public ArrayGame(@NotNull Dice dice, @NotNull Strategy[] strategies)
+	{
+		if (strategies.length < 1)
+			throw new IllegalArgumentException("Cannot create game, not enough players.");
+
+		this.dice = dice;
+		this.strategies = strategies;
+		this.turnPoints = new int[strategies.length];
+		this.bankPoints = new int[strategies.length];
+		this.currentBet = new int[strategies.length];
+		this.lastRoll = new int[strategies.length];
+	}
+
+	/**
+	 * Resets the game and plays it until there is a winner.
+	 */
+	public void play()
+	{
+		reset();
+		run();
+	}
+
+	/**
+	 * Resets all seats to the initial state.
+	 */
+	public void reset()
+	{
+		for (int seat = 0; seat < strategies.length; seat++) {
+			turnPoints[seat] = 0;
+			bankPoints[seat] = 0;
+			currentBet[seat] = 0;
+			lastRoll[seat] = 0;
+		}
+
+		currentSeat = 0;
+		rounds = 0;
+		hardResets = 0;
+		softResets = 0;
+	}
+
+	/**
+	 * Plays rolls from the current seat until there is a winner at the end of a round.
+	 */
+	private void run()
+	{
+		while (true) {
+			int seat = currentSeat;
+
+			dice.roll();
+			int outcome = dice.outcome();
+			int sum     = DiceOutcome.sum(outcome);
+			lastRoll[seat] = sum;
+
+			if (DiceOutcome.forcesHardReset(outcome)) {
+				hardResets++;
+				if (bankPoints[seat] > 0)
+					bankPoints[seat] = 0;
+				turnPoints[seat] = 0;
+			} else if (DiceOutcome.forcesSoftReset(outcome)) {
+				softResets++;
+				turnPoints[seat] = 0;
+			} else {
+				if (DiceOutcome.winsBet(outcome))
+					bankPoints[seat] += currentBet[seat] * 2;
+				currentBet[seat] = 0;
+				turnPoints[seat] += sum;
+
+				Strategy     strategy = strategies[seat];
+				GameDecision decision = strategy.decide(this, seat);
+				if (apply(seat, decision, decision == GameDecision.BET ? strategy.bet(this, seat) : 0))
+					continue;
+			}
+
+			if (pass())
+				return;
+		}
+	}
+
+	/**
+	 * Applies the provided decision for the current seat, which must be waiting for a decision, and plays the game
+	 * until there is a winner at the end of a round.
+	 *
+	 * @param decision The decision of the current seat.
+	 * @param bet      The amount of points to bet, when the decision is BET.
+	 */
+	public void resume(GameDecision decision, int bet)
+	{
+		if (apply(currentSeat, decision, bet) || !pass())
+			run();
+	}
+
+	/**
+	 * Hands the turn to the next seat.
+	 *
+	 * @return True if the round ended with a winner.
+	 */
+	private boolean pass()
+	{
+		if (currentSeat + 1 == strategies.length) {
+			rounds++;
+			if (hasWinner())
+				return true;
+			currentSeat = 0;
+		} else {
+			currentSeat++;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Applies the provided decision for the provided seat.
+	 *
+	 * @param seat     The seat making the decision.
+	 * @param decision The decision of the seat.
+	 * @param amount   The amount of points to bet, when the decision is BET.
+	 * @return True if the seat rolls again, false if the seat saved their turn points.
+	 */
+	private boolean apply(int seat, GameDecision decision, int amount)
+	{
+		if (decision == GameDecision.CONTINUE)
+			return true;
+
+		if (decision == GameDecision.BET) {
+			if (amount < 0)
+				throw new IllegalArgumentException("Bet amount cannot be less than one.");
+			if (currentBet[seat] + amount > bankPoints[seat])
+				throw new IllegalStateException("Not enough points to bet");
+
+			currentBet[seat] += amount;
+			bankPoints[seat] -= amount;
+			return true;
+		}
+
+		bankPoints[seat] += turnPoints[seat];
+		turnPoints[seat] = 0;
+		return false;
+	}
+
+	/**
+	 * Copies the state of the provided game, which must have the same number of seats, into this game.
+	 *
+	 * @param other The game to copy.
+	 */
+	public void copyFrom(ArrayGame other)
+	{
+		if (other.strategies.length != strategies.length)
+			throw new IllegalArgumentException("Games must have the same number of seats.");
+
+		System.arraycopy(other.turnPoints, 0, turnPoints, 0, turnPoints.length);
+		System.arraycopy(other.bankPoints, 0, bankPoints, 0, bankPoints.length);
+		System.arraycopy(other.currentBet, 0, currentBet, 0, currentBet.length);
+		System.arraycopy(other.lastRoll, 0, lastRoll, 0, lastRoll.length);
+		currentSeat = other.currentSeat;
+		rounds = other.rounds;
+		hardResets = other.hardResets;
+		softResets = other.softResets;
+	}
+
+	/**
+	 * Copies the state of the players of the provided game, which must have the same number of players, into this game.
+	 * The counters of this game are reset.
+	 *
+	 * @param game The game to copy.
+	 */
+	public void copyFrom(Game game)
+	{
+		List<Player> players = game.getPlayers().collect(Collectors.toList());
+		if (players.size() != strategies.length)
+			throw new IllegalArgumentException("Games must have the same number of seats.");
+
+		reset();
+
+		for (int seat = 0; seat < strategies.length; seat++) {
+			Player player = players.get(seat);
+			turnPoints[seat] = player.getTurnPoints();
+			bankPoints[seat] = player.getBankPoints();
+			currentBet[seat] = player.getCurrentBet();
+			lastRoll[seat] = player.getLastRoll();
+			if (player == game.getCurrentRespondent())
+				currentSeat = seat;
+		}
+	}
+
+	/**
+	 * Returns true if a seat reached the winning points.
+	 *
+	 * @return True if a seat reached the winning points.
+	 */
+	private boolean hasWinner()
+	{
+		for (int seat = 0; seat < strategies.length; seat++)
+			if (getTotalPoints(seat) >= WINNING_POINTS)
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * Returns the highest total of all seats.
+	 *
+	 * @return The highest total of all seats.
+	 */
+	private int getHighestTotal()
+	{
+		int highest = Integer.MIN_VALUE;
+		for (int seat = 0; seat < strategies.length; seat++)
+			highest = Math.max(highest, getTotalPoints(seat));
+
+		return highest;
+	}
+
+	/**
+	 * Returns true if the provided seat has the most points. More than one seat can be a winner.
+	 *
+	 * @param seat The seat.
+	 * @return True if the provided seat has the most points.
+	 */
+	public boolean isWinner(int seat)
+	{
+		return getTotalPoints(seat) == getHighestTotal();
+	}
+
+	/**
+	 * Returns the number of seats with the most points.
+	 *
+	 * @return The number of seats with the most points.
+	 */
+	public int getWinnerCount()
+	{
+		int highest = getHighestTotal();
+		int count   = 0;
+		for (int seat = 0; seat < strategies.length; seat++)
+			if (getTotalPoints(seat) == highest)
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * Returns the number of seats in the game.
+	 *
+	 * @return The number of seats in the game.
+	 */
+	public int getSeats()
+	{
+		return strategies.length;
+	}
+
+	/**
+	 * Returns the seat currently playing.
+	 *
+	 * @return The seat currently playing.
+	 */
+	public int getCurrentSeat()
+	{
+		return currentSeat;
+	}
+
+	/**
+	 * Returns the turn points of the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The turn points of the provided seat.
+	 */
+	public int getTurnPoints(int seat)
+	{
+		return turnPoints[seat];
+	}
+
+	/**
+	 * Returns the bank points of the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The bank points of the provided seat.
+	 */
+	public int getBankPoints(int seat)
+	{
+		return bankPoints[seat];
+	}
+
+	/**
+	 * Returns the total of the turn and bank points of the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The total of the turn and bank points of the provided seat.
+	 */
+	public int getTotalPoints(int seat)
+	{
+		return turnPoints[seat] + bankPoints[seat];
+	}
+
+	/**
+	 * Returns the current bet of the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The current bet of the provided seat.
+	 */
+	public int getCurrentBet(int seat)
+	{
+		return currentBet[seat];
+	}
+
+	/**
+	 * Returns the last roll of the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The last roll of the provided seat.
+	 */
+	public int getLastRoll(int seat)
+	{
+		return lastRoll[seat];
+	}
+
+	/**
+	 * Returns the number of completed rounds.
+	 *
+	 * @return The number of completed rounds.
+	 */
+	public int getRounds()
+	{
+		return rounds;
+	}
+
+	/**
+	 * Returns the number of hard resets in the game.
+	 *
+	 * @return The number of hard resets in the game.
+	 */
+	public int getHardResets()
+	{
+		return hardResets;
+	}
+
+	/**
+	 * Returns the number of soft resets in the game.
+	 *
+	 * @return The number of soft resets in the game.
+	 */
+	public int getSoftResets()
+	{
+		return softResets;
+	}
+}
@@ -0,0 +1,48 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Dice;
+
+/**
+ * Simulation worker playing games on a single reused array backed game.
+ */
+public class ArrayGameWorker implements SimulationWorker
+{
+
+	/**
+	 * The game played by the worker.
+	 */
+	@NotNull private ArrayGame game;
+
+	/**
+	 * Creates a new array game worker.
+	 *
+	 * @param dice       The dice to play the games with.
+	 * @param strategies The strategies of the seats.
+	 */
+	public ArrayGameWorker(@NotNull Dice dice, @NotNull Strategy[] strategies)
+	{
+		this.game = new ArrayGame(dice, strategies);
+	}
+
+	/**
+	 * Plays a single complete game, recording the outcome in the provided result.
+	 *
+	 * @param result The result to record the outcome of the game in.
+	 */
+	@Override public void play(SimulationResult result)
+	{
+		game.play();
+
+		for (int seat = 0; seat < game.getSeats(); seat++)
+			if (game.isWinner(seat))
+				result.recordWin(seat);
+
+		if (game.getWinnerCount() > 1)
+			result.recordDraw();
+
+		result.recordHardResets(game.getHardResets());
+		result.recordSoftResets(game.getSoftResets());
+		result.recordGame(game.getRounds());
+	}
+}
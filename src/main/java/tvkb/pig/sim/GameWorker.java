@@ -0,0 +1,75 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tvkb.pig.Dice;
+import tvkb.pig.Game;
+import tvkb.pig.GameStartException;
+import tvkb.pig.GameState;
+import tvkb.pig.Player;
+
+import java.util.List;
+
+/**
+ * Simulation worker playing complete games using the regular game engine. The worker creates a single game for its
+ * players and dice, and resets it between games, so playing a game allocates no new players, dice or games.
+ */
+public class GameWorker implements SimulationWorker
+{
+
+	/**
+	 * The players of the games.
+	 */
+	@NotNull private List<Player> players;
+
+	/**
+	 * The dice of the games.
+	 */
+	@NotNull private Dice dice;
+
+	/**
+	 * The game reused for every game, created on the first game.
+	 */
+	@Nullable private Game game;
+
+	/**
+	 * The result the game records in, swapped per call to play().
+	 */
+	@Nullable private SimulationResult result;
+
+	/**
+	 * Creates a new game worker.
+	 *
+	 * @param players The players of the games, owned by the worker.
+	 * @param dice    The dice of the games, owned by the worker.
+	 */
+	public GameWorker(@NotNull List<Player> players, @NotNull Dice dice)
+	{
+		this.players = players;
+		this.dice = dice;
+	}
+
+	/**
+	 * Plays a single complete game, recording the outcome in the provided result.
+	 *
+	 * @param result The result to record the outcome of the game in.
+	 */
+	@Override public void play(SimulationResult result)
+	{
+		if (game == null || this.result != result) {
+			this.result = result;
+			this.game = new Game(dice, new StatisticsCollector(result), players);
+		}
+
+		game.reset();
+
+		try {
+			game.start();
+		} catch (GameStartException e) {
+			throw new IllegalStateException(e.getMessage(), e);
+		}
+
+		if (game.getState() != GameState.ENDED)
+			throw new IllegalStateException("Simulated games cannot wait for player decisions.");
+	}
+}
@@ -0,0 +1,37 @@
+package tvkb.pig.sim;
+
+import tvkb.pig.GameDecision;
+
+/**
+ * Strategy saving as soon as the turn total reaches a limit. With a limit of 21 this plays like the ComputerPlayer.
+ */
+public class HoldStrategy implements Strategy
+{
+
+	/**
+	 * The turn total at which to save.
+	 */
+	private int limit;
+
+	/**
+	 * Creates a new hold strategy.
+	 *
+	 * @param limit The turn total at which to save.
+	 */
+	public HoldStrategy(int limit)
+	{
+		this.limit = limit;
+	}
+
+	/**
+	 * Returns the decision of the provided seat.
+	 *
+	 * @param game The current game.
+	 * @param seat The seat to make the decision for.
+	 * @return SAVE when the turn total reached the limit, CONTINUE otherwise.
+	 */
+	@Override public GameDecision decide(ArrayGame game, int seat)
+	{
+		return game.getTurnPoints(seat) >= limit ? GameDecision.SAVE : GameDecision.CONTINUE;
+	}
+}
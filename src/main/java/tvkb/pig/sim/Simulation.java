@@ -0,0 +1,126 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.BufferedDice;
+import tvkb.pig.ComputerPlayer;
+import tvkb.pig.DicePair;
+import tvkb.pig.Player;
+import tvkb.pig.RandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Plays large numbers of headless games in parallel on a fork/join pool. Every batch of games gets its own random
+ * generator, so simulations with the same seed and number of games have the same result.
+ */
+public class Simulation
+{
+
+	/**
+	 * Plays a number of games between two computer players and prints the results.
+	 *
+	 * @param args The number of games to play, defaults to one million, optionally followed by "arrays" to play the
+	 *             games on the array backed engine and a seed.
+	 */
+	public static void main(String[] args)
+	{
+		long    games  = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+		boolean arrays = args.length > 1 && args[1].equals("arrays");
+		long    seed   = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+		Supplier<List<Player>> lineup = () -> {
+			List<Player> players = new ArrayList<>();
+			players.add(new ComputerPlayer("Computer 1"));
+			players.add(new ComputerPlayer("Computer 2"));
+			return players;
+		};
+
+		Function<RandomSource, SimulationWorker> workers = arrays
+				? random -> new ArrayGameWorker(new BufferedDice(new DicePair(random), 4096), new Strategy[]{new HoldStrategy(21), new HoldStrategy(21)})
+				: random -> new GameWorker(lineup.get(), new DicePair(random));
+
+		Simulation simulation = new Simulation(workers, 2);
+
+		long             start  = System.nanoTime();
+		SimulationResult result = simulation.run(games, seed);
+		long             time   = System.nanoTime() - start;
+
+		System.out.print(result);
+		System.out.println(String.format("Simulated %d games in %d ms.", games, time / 1_000_000));
+	}
+
+	/**
+	 * The number of batches the games are split into.
+	 */
+	private static final long BATCHES = 1024;
+
+	/**
+	 * The pool to play the games on.
+	 */
+	@NotNull private ForkJoinPool pool;
+
+	/**
+	 * Creates the worker used to play each batch of games from the random generator of the batch.
+	 */
+	@NotNull private Function<RandomSource, SimulationWorker> workers;
+
+	/**
+	 * The number of seats in the simulated games.
+	 */
+	private int seats;
+
+	/**
+	 * Creates a new simulation running on the common fork/join pool.
+	 *
+	 * @param workers Creates the worker used to play each batch of games from the random generator of the batch.
+	 * @param seats   The number of seats in the simulated games.
+	 */
+	public Simulation(@NotNull Function<RandomSource, SimulationWorker> workers, int seats)
+	{
+		this(ForkJoinPool.commonPool(), workers, seats);
+	}
+
+	/**
+	 * Creates a new simulation.
+	 *
+	 * @param pool    The pool to play the games on.
+	 * @param workers Creates the worker used to play each batch of games from the random generator of the batch.
+	 * @param seats   The number of seats in the simulated games.
+	 */
+	public Simulation(@NotNull ForkJoinPool pool, @NotNull Function<RandomSource, SimulationWorker> workers, int seats)
+	{
+		this.pool = pool;
+		this.workers = workers;
+		this.seats = seats;
+	}
+
+	/**
+	 * Plays the provided number of games with a random seed and returns the combined result.
+	 *
+	 * @param games The number of games to play.
+	 * @return The combined result of the games.
+	 */
+	public SimulationResult run(long games)
+	{
+		return run(games, System.nanoTime());
+	}
+
+	/**
+	 * Plays the provided number of games and returns the combined result.
+	 *
+	 * @param games The number of games to play.
+	 * @param seed  The seed of the simulation.
+	 * @return The combined result of the games.
+	 */
+	public SimulationResult run(long games, long seed)
+	{
+		// The batch size only depends on the number of games, so the result does not depend on the pool.
+		long threshold = Math.max(1, games / BATCHES);
+
+		return pool.invoke(new SimulationTask(workers, seats, seed, 0, games, threshold));
+	}
+}
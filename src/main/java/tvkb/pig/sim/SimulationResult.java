@@ -0,0 +1,210 @@
+package tvkb.pig.sim;
+
+public class SimulationResult
+{
+
+	/**
+	 * The number of games won by each seat. Shared wins are counted for every winner.
+	 */
+	private long[] wins;
+
+	/**
+	 * The number of games played.
+	 */
+	private long games = 0;
+
+	/**
+	 * The number of games that ended with more than one winner.
+	 */
+	private long draws = 0;
+
+	/**
+	 * The number of rounds played across all games.
+	 */
+	private long rounds = 0;
+
+	/**
+	 * The number of hard resets across all games.
+	 */
+	private long hardResets = 0;
+
+	/**
+	 * The number of soft resets across all games.
+	 */
+	private long softResets = 0;
+
+	/**
+	 * Creates a new empty simulation result.
+	 *
+	 * @param seats The number of seats in the simulated games.
+	 */
+	public SimulationResult(int seats)
+	{
+		this.wins = new long[seats];
+	}
+
+	/**
+	 * Records the end of a game.
+	 *
+	 * @param rounds The number of rounds played in the game.
+	 */
+	public void recordGame(int rounds)
+	{
+		this.games++;
+		this.rounds += rounds;
+	}
+
+	/**
+	 * Records a win for the provided seat.
+	 *
+	 * @param seat The seat that won the game.
+	 */
+	public void recordWin(int seat)
+	{
+		this.wins[seat]++;
+	}
+
+	/**
+	 * Records a game with more than one winner.
+	 */
+	public void recordDraw()
+	{
+		this.draws++;
+	}
+
+	/**
+	 * Records the provided number of hard resets.
+	 *
+	 * @param count The number of hard resets.
+	 */
+	public void recordHardResets(int count)
+	{
+		this.hardResets += count;
+	}
+
+	/**
+	 * Records the provided number of soft resets.
+	 *
+	 * @param count The number of soft resets.
+	 */
+	public void recordSoftResets(int count)
+	{
+		this.softResets += count;
+	}
+
+	/**
+	 * Adds the provided result to this result.
+	 *
+	 * @param other The result to add.
+	 * @return This result.
+	 */
+	public SimulationResult merge(SimulationResult other)
+	{
+		for (int seat = 0; seat < wins.length; seat++)
+			this.wins[seat] += other.wins[seat];
+
+		this.games += other.games;
+		this.draws += other.draws;
+		this.rounds += other.rounds;
+		this.hardResets += other.hardResets;
+		this.softResets += other.softResets;
+
+		return this;
+	}
+
+	/**
+	 * Returns the number of seats in the simulated games.
+	 *
+	 * @return The number of seats in the simulated games.
+	 */
+	public int getSeats()
+	{
+		return wins.length;
+	}
+
+	/**
+	 * Returns the number of games played.
+	 *
+	 * @return The number of games played.
+	 */
+	public long getGames()
+	{
+		return games;
+	}
+
+	/**
+	 * Returns the number of games won by the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The number of games won by the provided seat.
+	 */
+	public long getWins(int seat)
+	{
+		return wins[seat];
+	}
+
+	/**
+	 * Returns the fraction of the games won by the provided seat.
+	 *
+	 * @param seat The seat.
+	 * @return The fraction of the games won by the provided seat.
+	 */
+	public double getWinRate(int seat)
+	{
+		return games == 0 ? 0 : (double) wins[seat] / games;
+	}
+
+	/**
+	 * Returns the number of games that ended with more than one winner.
+	 *
+	 * @return The number of games that ended with more than one winner.
+	 */
+	public long getDraws()
+	{
+		return draws;
+	}
+
+	/**
+	 * Returns the average number of rounds per game.
+	 *
+	 * @return The average number of rounds per game.
+	 */
+	public double getAverageRounds()
+	{
+		return games == 0 ? 0 : (double) rounds / games;
+	}
+
+	/**
+	 * Returns the number of hard resets across all games.
+	 *
+	 * @return The number of hard resets across all games.
+	 */
+	public long getHardResets()
+	{
+		return hardResets;
+	}
+
+	/**
+	 * Returns the number of soft resets across all games.
+	 *
+	 * @return The number of soft resets across all games.
+	 */
+	public long getSoftResets()
+	{
+		return softResets;
+	}
+
+	@Override public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("Games: %d%n", games));
+		for (int seat = 0; seat < wins.length; seat++)
+			builder.append(String.format("Seat %d win rate: %.4f%n", seat, getWinRate(seat)));
+		builder.append(String.format("Draws: %d%n", draws));
+		builder.append(String.format("Average rounds: %.2f%n", getAverageRounds()));
+		builder.append(String.format("Hard resets: %d%n", hardResets));
+		builder.append(String.format("Soft resets: %d%n", softResets));
+
+		return builder.toString();
+	}
+}
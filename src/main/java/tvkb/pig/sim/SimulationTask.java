@@ -0,0 +1,91 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.RandomSource;
+import tvkb.pig.SplitMixRandom;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Fork/join task playing a range of simulated games. Ranges larger than the threshold are split in two. Every leaf
+ * task gets its own random generator, seeded from the simulation seed and the index of its first game, so the result
+ * does not depend on which thread plays which games.
+ */
+class SimulationTask extends RecursiveTask<SimulationResult>
+{
+
+	/**
+	 * Creates the worker used to play the games of a leaf task.
+	 */
+	@NotNull private Function<RandomSource, SimulationWorker> workers;
+
+	/**
+	 * The number of seats in the simulated games.
+	 */
+	private int seats;
+
+	/**
+	 * The seed of the simulation.
+	 */
+	private long seed;
+
+	/**
+	 * The index of the first game to play.
+	 */
+	private long first;
+
+	/**
+	 * The number of games to play.
+	 */
+	private long games;
+
+	/**
+	 * The maximum number of games played by a single leaf task.
+	 */
+	private long threshold;
+
+	/**
+	 * Creates a new simulation task.
+	 *
+	 * @param workers   Creates the worker used to play the games of a leaf task.
+	 * @param seats     The number of seats in the simulated games.
+	 * @param seed      The seed of the simulation.
+	 * @param first     The index of the first game to play.
+	 * @param games     The number of games to play.
+	 * @param threshold The maximum number of games played by a single leaf task.
+	 */
+	SimulationTask(@NotNull Function<RandomSource, SimulationWorker> workers, int seats, long seed, long first, long games, long threshold)
+	{
+		this.workers = workers;
+		this.seats = seats;
+		this.seed = seed;
+		this.first = first;
+		this.games = games;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Plays the games, splitting the range when it is larger than the threshold.
+	 *
+	 * @return The combined result of the games.
+	 */
+	@Override protected SimulationResult compute()
+	{
+		if (games <= threshold) {
+			SimulationResult result = new SimulationResult(seats);
+			SimulationWorker worker = workers.apply(new SplitMixRandom(SplitMixRandom.mix(seed ^ SplitMixRandom.mix(first))));
+			for (long i = 0; i < games; i++)
+				worker.play(result);
+
+			return result;
+		}
+
+		long           half  = games / 2;
+		SimulationTask left  = new SimulationTask(workers, seats, seed, first, half, threshold);
+		SimulationTask right = new SimulationTask(workers, seats, seed, first + half, games - half, threshold);
+		left.fork();
+
+		return right.compute().merge(left.join());
+	}
+}
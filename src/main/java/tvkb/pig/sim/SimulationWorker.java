@@ -0,0 +1,16 @@
+package tvkb.pig.sim;
+
+/**
+ * Plays simulated games on a single thread. A worker is created for every batch of games, so it is free to keep state
+ * between the games it plays.
+ */
+public interface SimulationWorker
+{
+
+	/**
+	 * Plays a single complete game, recording the outcome in the provided result.
+	 *
+	 * @param result The result to record the outcome of the game in.
+	 */
+	void play(SimulationResult result);
+}
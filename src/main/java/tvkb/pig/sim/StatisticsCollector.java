@@ -0,0 +1,167 @@
+package tvkb.pig.sim;
+
+import org.jetbrains.annotations.NotNull;
+import tvkb.pig.Game;
+import tvkb.pig.GameDecision;
+import tvkb.pig.GameEvent;
+import tvkb.pig.GameEventHandler;
+import tvkb.pig.Player;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Headless event handler recording the outcome of simulated games.
+ */
+public class StatisticsCollector implements GameEventHandler
+{
+
+	/**
+	 * The result to record the games in.
+	 */
+	@NotNull private SimulationResult result;
+
+	/**
+	 * The number of rounds played in the current game.
+	 */
+	private int rounds = 0;
+
+	/**
+	 * Creates a new statistics collector.
+	 *
+	 * @param result The result to record the games in.
+	 */
+	public StatisticsCollector(@NotNull SimulationResult result)
+	{
+		this.result = result;
+	}
+
+	/**
+	 * Returns the types of events the collector records.
+	 *
+	 * @return The types of events the collector records.
+	 */
+	@Override public Set<GameEvent> getSubscriptions()
+	{
+		return EnumSet.of(GameEvent.GAME_START, GameEvent.GAME_END, GameEvent.ROUND_END, GameEvent.HARD_RESET, GameEvent.SOFT_RESET);
+	}
+
+	/**
+	 * Called when a new game starts.
+	 *
+	 * @param game The new game instance.
+	 */
+	@Override public void onGameStart(Game game)
+	{
+		rounds = 0;
+	}
+
+	/**
+	 * Called when the game ends.
+	 *
+	 * @param game The game instance that just ended.
+	 */
+	@Override public void onGameEnd(Game game)
+	{
+		List<Player> winners = game.getWinners();
+		for (Player winner : winners)
+			result.recordWin(game.getSeat(winner));
+
+		if (winners.size() > 1)
+			result.recordDraw();
+
+		result.recordGame(rounds);
+	}
+
+	/**
+	 * Called when a new round starts.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundStart(Game game)
+	{
+	}
+
+	/**
+	 * Called when a new round ends.
+	 *
+	 * @param game The current game instance.
+	 */
+	@Override public void onRoundEnd(Game game)
+	{
+		rounds++;
+	}
+
+	/**
+	 * Called when a new turn begins.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn it is.
+	 */
+	@Override public void onTurnStart(Game game, Player player)
+	{
+	}
+
+	/**
+	 * Called when a player ends their turn.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player whose turn ended.
+	 */
+	@Override public void onTurnEnd(Game game, Player player)
+	{
+	}
+
+	/**
+	 * Called when a player must make a game decision.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player to make the decision.
+	 */
+	@Override public void onDecisionRequest(Game game, Player player)
+	{
+	}
+
+	/**
+	 * Called when the game has received a decision.
+	 *
+	 * @param game     The current game instance.
+	 * @param player   The player whose decision was received.
+	 * @param decision The decision that was made by the player.
+	 */
+	@Override public void onDecisionResponse(Game game, Player player, GameDecision decision)
+	{
+	}
+
+	/**
+	 * Called when a player must reset their turn and bank total.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their bank.
+	 */
+	@Override public void onHardReset(Game game, Player player)
+	{
+		result.recordHardResets(1);
+	}
+
+	/**
+	 * Called when a player must reset their turn total.
+	 *
+	 * @param game   The current game instance.
+	 * @param player The player who must reset their turn total.
+	 */
+	@Override public void onSoftReset(Game game, Player player)
+	{
+		result.recordSoftResets(1);
+	}
+
+	/**
+	 * Called when the game encounters an error.
+	 *
+	 * @param message The message to display.
+	 */
+	@Override public void onError(String message)
+	{
+	}
+}
@@ -0,0 +1,31 @@
+package tvkb.pig.sim;
+
+import tvkb.pig.GameDecision;
+
+/**
+ * Decision making of a seat in an array backed game.
+ */
+public interface Strategy
+{
+
+	/**
+	 * Returns the decision of the provided seat. Called after every roll that did not force a reset.
+	 *
+	 * @param game The current game.
+	 * @param seat The seat to make the decision for.
+	 * @return The decision of the seat.
+	 */
+	GameDecision decide(ArrayGame game, int seat);
+
+	/**
+	 * Returns the amount of points the provided seat wants to bet. Only called after decide() returned BET.
+	 *
+	 * @param game The current game.
+	 * @param seat The seat to make the bet for.
+	 * @return The amount of points to bet.
+	 */
+	default int bet(ArrayGame game, int seat)
+	{
+		return 0;
+	}
+}
@@ -0,0 +1,314 @@
+package tvkb.pig.net;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tvkb.pig.server.TableServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays games against a SocketServer over loopback, covering the line framing, the writes to the connections and the
+ * buffers duplicated for every subscriber of a table.
+ */
+public class SocketServerTest
+{
+
+	/**
+	 * The time a client waits for a line before the test fails, in milliseconds.
+	 */
+	private static final int READ_TIMEOUT = 10_000;
+
+	/**
+	 * The server hosting the tables.
+	 */
+	private TableServer tables;
+
+	/**
+	 * The server under test, bound to a free loopback port.
+	 */
+	private SocketServer server;
+
+	/**
+	 * Runs the clients playing the game.
+	 */
+	private ExecutorService clients;
+
+	/**
+	 * Starts a server seating two players at each table.
+	 *
+	 * @throws IOException When the server could not be bound.
+	 */
+	@Before public void setUp() throws IOException
+	{
+		tables = new TableServer(Executors.newWorkStealingPool(), 60_000);
+		server = new SocketServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), tables, 2);
+		server.start();
+		clients = Executors.newCachedThreadPool();
+	}
+
+	/**
+	 * Stops the clients and the server.
+	 */
+	@After public void tearDown()
+	{
+		clients.shutdownNow();
+		server.close();
+		tables.close();
+	}
+
+	/**
+	 * Two players join, play a game to its end and are watched by a spectator joining after the game started.
+	 *
+	 * @throws Exception When a client failed.
+	 */
+	@Test(timeout = 60_000) public void playsGameToEnd() throws Exception
+	{
+		Client first  = new Client("first");
+		Client second = new Client("second");
+
+		first.send("JOIN first");
+		second.send("JOIN second");
+		String table = first.awaitTable();
+		assertEquals(table, second.awaitTable());
+
+		// The game waits for the first decision, so the spectator is watching before any decision is made.
+		Client spectator = new Client("spectator");
+		spectator.send("WATCH " + table);
+		assertEquals("WATCHING " + table, spectator.readLine());
+
+		Future<List<String>> firstLines     = clients.submit(first::play);
+		Future<List<String>> secondLines    = clients.submit(second::play);
+		Future<List<String>> spectatorLines = clients.submit(spectator::watch);
+
+		List<String> played = firstLines.get();
+		assertEquals(played, secondLines.get());
+		assertEquals(1, count(played, "GAME_START"));
+		assertEquals(1, count(played, "GAME_END"));
+		assertEquals(0, count(played, "ERROR"));
+		assertTrue(count(played, "RESPONSE") > 0);
+
+		List<String> watched = spectatorLines.get();
+		assertFalse(watched.isEmpty());
+		assertEquals(played.subList(played.size() - watched.size(), played.size()), watched);
+
+		first.close();
+		second.close();
+		spectator.close();
+	}
+
+	/**
+	 * Watching a table that is not open is rejected.
+	 *
+	 * @throws Exception When a client failed.
+	 */
+	@Test(timeout = 60_000) public void rejectsUnknownTable() throws Exception
+	{
+		Client spectator = new Client("spectator");
+		spectator.send("WATCH 12345");
+		assertEquals("ERROR No such table.", spectator.readLine());
+		spectator.close();
+	}
+
+	/**
+	 * Joining with the name of a connected player is rejected.
+	 *
+	 * @throws Exception When a client failed.
+	 */
+	@Test(timeout = 60_000) public void rejectsDuplicateName() throws Exception
+	{
+		Client first  = new Client("same");
+		Client second = new Client("same");
+
+		first.send("JOIN same");
+		assertEquals("WAITING", first.readLine());
+		second.send("JOIN same");
+		assertEquals("ERROR Player name is not unique.", second.readLine());
+
+		first.close();
+		second.close();
+	}
+
+	/**
+	 * Returns the number of lines starting with the provided keyword.
+	 *
+	 * @param lines   The lines.
+	 * @param keyword The keyword.
+	 * @return The number of lines starting with the provided keyword.
+	 */
+	private static int count(List<String> lines, String keyword)
+	{
+		int count = 0;
+		for (String line : lines)
+			if (line.equals(keyword) || line.startsWith(keyword + " "))
+				count++;
+
+		return count;
+	}
+
+	/**
+	 * A client connected to the server over loopback.
+	 */
+	private final class Client implements AutoCloseable
+	{
+
+		/**
+		 * The name of the player of the client.
+		 */
+		private final String name;
+
+		/**
+		 * The socket of the client.
+		 */
+		private final Socket socket;
+
+		/**
+		 * Reads the lines sent by the server.
+		 */
+		private final BufferedReader in;
+
+		/**
+		 * Writes the lines sent to the server.
+		 */
+		private final PrintWriter out;
+
+		/**
+		 * The game events received before the table was known.
+		 */
+		private final List<String> early = new ArrayList<>();
+
+		/**
+		 * Connects a new client.
+		 *
+		 * @param name The name of the player of the client.
+		 * @throws IOException When the client could not connect.
+		 */
+		Client(String name) throws IOException
+		{
+			this.name = name;
+			this.socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+			this.socket.setSoTimeout(READ_TIMEOUT);
+			this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			this.out = new PrintWriter(socket.getOutputStream(), true);
+		}
+
+		/**
+		 * Sends a line to the server.
+		 *
+		 * @param line The line.
+		 */
+		void send(String line)
+		{
+			out.println(line);
+		}
+
+		/**
+		 * Reads the next line sent by the server.
+		 *
+		 * @return The line.
+		 * @throws IOException When the connection was closed or no line arrived in time.
+		 */
+		String readLine() throws IOException
+		{
+			String line = in.readLine();
+			if (line == null)
+				throw new IOException("Connection closed by the server.");
+
+			return line;
+		}
+
+		/**
+		 * Reads lines until the id of the table of the player arrives. Game events may arrive before the id, as the
+		 * table starts right after the players are told about it.
+		 *
+		 * @return The id of the table.
+		 * @throws IOException When the connection was closed or no line arrived in time.
+		 */
+		String awaitTable() throws IOException
+		{
+			while (true) {
+				String line = readLine();
+				if (line.startsWith("TABLE "))
+					return line.substring("TABLE ".length());
+				if (!line.equals("WAITING"))
+					early.add(line);
+			}
+		}
+
+		/**
+		 * Plays the game, saving at twenty turn points, and returns the game events received.
+		 *
+		 * @return The game events received, ending with GAME_END.
+		 * @throws IOException When the connection was closed or no line arrived in time.
+		 */
+		List<String> play() throws IOException
+		{
+			List<String> lines = new ArrayList<>();
+			for (String line : early) {
+				lines.add(line);
+				decide(line);
+			}
+
+			while (lines.isEmpty() || !lines.get(lines.size() - 1).startsWith("GAME_END")) {
+				String line = readLine();
+				lines.add(line);
+				decide(line);
+			}
+
+			return lines;
+		}
+
+		/**
+		 * Answers the provided line when it requests a decision of the player.
+		 *
+		 * @param line The line.
+		 */
+		private void decide(String line)
+		{
+			String[] parts = line.split(" ");
+			if (parts[0].equals("DECISION") && parts[1].equals(name))
+				send(Integer.parseInt(parts[2]) >= 20 ? "SAVE" : "CONTINUE");
+		}
+
+		/**
+		 * Watches the game and returns the game events received.
+		 *
+		 * @return The game events received, ending with GAME_END.
+		 * @throws IOException When the connection was closed or no line arrived in time.
+		 */
+		List<String> watch() throws IOException
+		{
+			List<String> lines = new ArrayList<>();
+			String       line;
+			do {
+				line = readLine();
+				lines.add(line);
+			} while (!line.startsWith("GAME_END"));
+
+			return lines;
+		}
+
+		/**
+		 * Closes the connection.
+		 *
+		 * @throws IOException When the socket could not be closed.
+		 */
+		@Override public void close() throws IOException
+		{
+			send("QUIT");
+			socket.close();
+		}
+	}
+}